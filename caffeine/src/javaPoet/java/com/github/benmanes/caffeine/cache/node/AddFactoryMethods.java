@@ -106,7 +106,7 @@ public final class AddFactoryMethods extends NodeRule {
         .addParameters(ImmutableList.copyOf(keyParams))
         .addParameter(valueSpec)
         .addParameter(valueRefQueueSpec)
-        .addParameter(int.class, "weight")
+        .addParameter(long.class, "weight")
         .addParameter(long.class, "now")
         .returns(NODE);
   }
@@ -56,14 +56,14 @@ public final class AddMaximum extends NodeRule {
     if (!context.generateFeatures.contains(Feature.MAXIMUM_WEIGHT)) {
       return;
     }
-    context.nodeSubtype.addField(int.class, "weight")
-        .addMethod(newGetter(Strength.STRONG, TypeName.INT, "weight", Visibility.VOLATILE))
-        .addMethod(newSetter(TypeName.INT, "weight", Visibility.VOLATILE));
+    context.nodeSubtype.addField(long.class, "weight")
+        .addMethod(newGetter(Strength.STRONG, TypeName.LONG, "weight", Visibility.VOLATILE))
+        .addMethod(newSetter(TypeName.LONG, "weight", Visibility.VOLATILE));
     context.constructorByKey.addStatement("this.$N = $N", "weight", "weight");
     context.constructorByKeyRef.addStatement("this.$N = $N", "weight", "weight");
 
-    context.nodeSubtype.addField(int.class, "policyWeight")
-        .addMethod(newGetter(Strength.STRONG, TypeName.INT, "policyWeight", Visibility.VOLATILE))
-        .addMethod(newSetter(TypeName.INT, "policyWeight", Visibility.VOLATILE));
+    context.nodeSubtype.addField(long.class, "policyWeight")
+        .addMethod(newGetter(Strength.STRONG, TypeName.LONG, "policyWeight", Visibility.VOLATILE))
+        .addMethod(newSetter(TypeName.LONG, "policyWeight", Visibility.VOLATILE));
   }
 }
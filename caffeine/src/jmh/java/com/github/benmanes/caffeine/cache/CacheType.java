@@ -77,6 +77,16 @@ public enum CacheType {
       return new CaffeineCache<>(maximumSize);
     }
   },
+  Caffeine_WeakKeys {
+    @Override public <K, V> BasicCache<K, V> create(int maximumSize) {
+      return new ConcurrentMapCache<>(com.github.benmanes.caffeine.cache.Caffeine.newBuilder()
+          .initialCapacity(maximumSize)
+          .maximumSize(maximumSize)
+          .weakKeys()
+          .<K, V>build()
+          .asMap());
+    }
+  },
   Coherence_Lru {
     @SuppressWarnings("deprecation")
     @Override public <K, V> BasicCache<K, V> create(int maximumSize) {
@@ -33,6 +33,8 @@ import site.ycsb.generator.ScrambledZipfianGenerator;
 /**
  * A benchmark that evaluates the read/write performance of a cache. The cache is pre-populated for
  * a 100% hit rate and a Zipf distribution of keys is used to mimic application usage patterns.
+ * The weak keys configuration is expected to not allocate on reads, which may be verified with
+ * JMH's {@code gc} profiler.
  * <p>
  * <pre>{@code
  *   ./gradlew jmh -PincludePattern=GetPutBenchmark
@@ -51,6 +53,7 @@ public class GetPutBenchmark {
   @Param({
     "LinkedHashMap_Lru",
     "Caffeine",
+    "Caffeine_WeakKeys",
     "ConcurrentLinkedHashMap",
     "Coherence_Hybrid",
     "Ehcache3",
@@ -19,8 +19,11 @@ import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Locale.US;
 import static java.util.function.Function.identity;
 
+import java.lang.reflect.Modifier;
 import java.math.RoundingMode;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
@@ -75,6 +78,7 @@ public final class MemoryBenchmark {
     weakKeys_weakValues();
     weakKeys_softValues();
     softValues();
+    nodeLayouts();
   }
 
   private Caffeine<Object, Object> builder() {
@@ -202,6 +206,74 @@ public final class MemoryBenchmark {
     compare("Soft Values", caffeine, guava);
   }
 
+  /**
+   * Reports the shallow size of the generated node for each feature combination and the size that
+   * it would have if its timestamps were stored as 32-bit values, which bounds the saving that a
+   * compact layout could offer.
+   */
+  private void nodeLayouts() {
+    var builders = ImmutableMap.<String, Caffeine<Object, Object>>builder()
+        .put("Maximum Size", builder().maximumSize(MAXIMUM_SIZE))
+        .put("Maximum Size & Expire after Access", builder()
+            .maximumSize(MAXIMUM_SIZE).expireAfterAccess(Duration.ofMinutes(1)))
+        .put("Maximum Size & Expire after Write", builder()
+            .maximumSize(MAXIMUM_SIZE).expireAfterWrite(Duration.ofMinutes(1)))
+        .put("Maximum Size & Refresh after Write", builder()
+            .maximumSize(MAXIMUM_SIZE).refreshAfterWrite(Duration.ofMinutes(1)))
+        .put("Maximum Size & Expire after Access & Write", builder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .expireAfterWrite(Duration.ofMinutes(1)))
+        .put("Maximum Size & Expire Variably", builder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfter(Expiry.writing((Object key, Object value) -> Duration.ofMinutes(1))))
+        .put("Expire after Access & Write & Refresh", builder()
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .refreshAfterWrite(Duration.ofMinutes(1)))
+        .put("Maximum Weight & Expire Variably & Refresh", builder()
+            .maximumWeight(MAXIMUM_SIZE).weigher((k, v) -> 1)
+            .expireAfter(Expiry.writing((Object key, Object value) -> Duration.ofMinutes(1)))
+            .refreshAfterWrite(Duration.ofMinutes(1)))
+        .buildOrThrow();
+
+    List<String[]> rows = new ArrayList<>();
+    builders.forEach((label, builder) -> {
+      LoadingCache<Integer, Integer> cache = builder.build(k -> k);
+      cache.put(1, 1);
+      var node = ((BoundedLocalCache<?, ?>) cache.asMap()).data.values().iterator().next();
+      long size = meter.measure(node);
+      int timestamps = timestampFields(node.getClass());
+      long compact = LongMath.divide(size - (4L * timestamps), 8, RoundingMode.CEILING) * 8;
+      rows.add(new String[] {
+          label,
+          node.getClass().getSimpleName(),
+          String.format(US, "%,d bytes", size),
+          String.valueOf(timestamps),
+          String.format(US, "%,d bytes", compact)
+      });
+    });
+
+    System.out.printf(US, " %s%n", "Node Layouts");
+    System.out.println(FlipTable.of(new String[] {
+        "Features", "Node", "Size", "Timestamps", "32-bit Timestamps"},
+        rows.toArray(String[][]::new)));
+  }
+
+  /** Returns the number of 64-bit timestamp fields declared by the node class's hierarchy. */
+  private static int timestampFields(Class<?> nodeClass) {
+    int count = 0;
+    for (Class<?> type = nodeClass; type != null; type = type.getSuperclass()) {
+      for (var field : type.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers()) && (field.getType() == long.class)
+            && field.getName().endsWith("Time")) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
   private void compare(String label, Cache<Integer, Integer> caffeine,
       com.google.common.cache.Cache<Integer, Integer> guava) {
     caffeine.cleanUp();
@@ -48,10 +48,16 @@ final class Async {
         && (future.join() != null);
   }
 
-  /** Returns the current value or null if either not done or failed. */
+  /**
+   * Returns the current value or null if either not done or failed. A future that completed
+   * normally cannot change its result, so the value is read once rather than being joined to test
+   * for null and then again to return it.
+   */
   @SuppressWarnings("NullAway")
   static @Nullable <V> V getIfReady(@Nullable CompletableFuture<V> future) {
-    return isReady(future) ? future.join() : null;
+    return ((future != null) && future.isDone() && !future.isCompletedExceptionally())
+        ? future.join()
+        : null;
   }
 
   /** Returns the value when completed successfully or null if failed. */
@@ -83,7 +89,16 @@ final class Async {
     @SuppressWarnings("FutureReturnValueIgnored")
     public void onRemoval(@Nullable K key,
         @Nullable CompletableFuture<V> future, RemovalCause cause) {
-      if (future != null) {
+      if (future == null) {
+        return;
+      } else if (delegate instanceof BatchingRemovalListener<?, ?>) {
+        // Joins the pending batch, which is delivered by a single task on the executor
+        future.thenAccept(value -> {
+          if (value != null) {
+            delegate.onRemoval(key, value, cause);
+          }
+        });
+      } else {
         future.thenAcceptAsync(value -> {
           if (value != null) {
             try {
@@ -148,7 +163,14 @@ final class Async {
 
     @Override
     public int weigh(K key, CompletableFuture<V> future) {
-      return isReady(future) ? delegate.weigh(key, future.join()) : 0;
+      V value = getIfReady(future);
+      return (value == null) ? 0 : delegate.weigh(key, value);
+    }
+
+    @Override
+    public long weighLong(K key, CompletableFuture<V> future) {
+      V value = getIfReady(future);
+      return (value == null) ? 0L : delegate.weighLong(key, value);
     }
 
     Object writeReplace() {
@@ -174,8 +196,9 @@ final class Async {
 
     @Override
     public long expireAfterCreate(K key, CompletableFuture<V> future, long currentTime) {
-      if (isReady(future)) {
-        long duration = delegate.expireAfterCreate(key, future.join(), currentTime);
+      V value = getIfReady(future);
+      if (value != null) {
+        long duration = delegate.expireAfterCreate(key, value, currentTime);
         return Math.min(duration, MAXIMUM_EXPIRY);
       }
       return ASYNC_EXPIRY;
@@ -184,10 +207,11 @@ final class Async {
     @Override
     public long expireAfterUpdate(K key, CompletableFuture<V> future,
         long currentTime, long currentDuration) {
-      if (isReady(future)) {
+      V value = getIfReady(future);
+      if (value != null) {
         long duration = (currentDuration > MAXIMUM_EXPIRY)
-            ? delegate.expireAfterCreate(key, future.join(), currentTime)
-            : delegate.expireAfterUpdate(key, future.join(), currentTime, currentDuration);
+            ? delegate.expireAfterCreate(key, value, currentTime)
+            : delegate.expireAfterUpdate(key, value, currentTime, currentDuration);
         return Math.min(duration, MAXIMUM_EXPIRY);
       }
       return ASYNC_EXPIRY;
@@ -196,8 +220,9 @@ final class Async {
     @Override
     public long expireAfterRead(K key, CompletableFuture<V> future,
         long currentTime, long currentDuration) {
-      if (isReady(future)) {
-        long duration = delegate.expireAfterRead(key, future.join(), currentTime, currentDuration);
+      V value = getIfReady(future);
+      if (value != null) {
+        long duration = delegate.expireAfterRead(key, value, currentTime, currentDuration);
         return Math.min(duration, MAXIMUM_EXPIRY);
       }
       return ASYNC_EXPIRY;
@@ -116,6 +116,36 @@ public interface AsyncCacheLoader<K, V> {
     return asyncLoad(key, executor);
   }
 
+  /**
+   * Asynchronously computes or retrieves the replacement values corresponding to already-cached
+   * keys. This method is called when the entries that are refreshed by
+   * {@link Caffeine#refreshAfterWrite} are coalesced into batches, as configured by
+   * {@link Caffeine#coalesceRefreshes}.
+   * <p>
+   * If the returned map does not contain a mapping for a requested key, then that entry is treated
+   * as if {@link #asyncReload} had returned {@code null} and the mapping will be removed. Any extra
+   * keys that were not requested are ignored. Each entry is replaced only if it was not modified
+   * while the reload was in-flight.
+   * <p>
+   * <b>Warning:</b> loading <b>must not</b> attempt to update any mappings of this cache directly
+   * or block waiting for other cache operations to complete.
+   * <p>
+   * <b>Note:</b> <i>all exceptions thrown by this method will be logged and then swallowed</i>.
+   *
+   * @param oldValues the non-null keys to reload and their non-null old values
+   * @param executor the executor with which the entries may be asynchronously loaded with
+   * @return a future containing the map from each key in {@code oldValues} to its new value;
+   *         <b>may not contain null values</b>
+   * @throws Exception or Error, in which case the mappings are unchanged
+   * @throws InterruptedException if this method is interrupted. {@code InterruptedException} is
+   *         treated like any other {@code Exception} in all respects except that, when it is
+   *         caught, the thread's interrupt status is set
+   */
+  default CompletableFuture<? extends Map<? extends K, ? extends V>> asyncReloadAll(
+      Map<? extends K, ? extends V> oldValues, Executor executor) throws Exception {
+    return asyncLoadAll(oldValues.keySet(), executor);
+  }
+
   /**
    * Returns an asynchronous cache loader that delegates to the supplied mapping function for
    * retrieving the values. Note that {@link #asyncLoad} will discard any additional mappings
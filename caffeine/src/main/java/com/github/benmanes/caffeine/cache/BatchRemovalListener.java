@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link RemovalListener} that receives the removal notifications in batches. When configured
+ * by {@link Caffeine#removalListener(RemovalListener)}, the cache accumulates the removals and
+ * delivers them in chunks of up to {@link #maximumBatchSize()} notifications, using a single task
+ * on the configured {@link Caffeine#executor(java.util.concurrent.Executor) executor} to deliver
+ * a burst of removals rather than one task per entry. This may be preferred by a listener that
+ * performs a bulk operation, such as writing the evicted entries to a secondary store.
+ * <p>
+ * The batches are delivered sequentially in the order that the removals were reported to the
+ * listener, so an implementation is not called concurrently by the cache that owns it. For an
+ * {@link AsyncCache} a removal is reported once the entry's future has completed.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ * @param <K> the most general type of keys this listener can listen for; for example {@code Object}
+ *        if any key is acceptable
+ * @param <V> the most general type of values this listener can listen for; for example
+ *        {@code Object} if any value is acceptable
+ */
+public interface BatchRemovalListener<K, V> extends RemovalListener<K, V> {
+
+  /**
+   * Notifies the listener that the removals occurred at some point in the past.
+   * <p>
+   * This does not always signify that the keys are now absent from the cache, as they may have
+   * already been re-added.
+   *
+   * @param notifications the removed entries, in the order that they were reported
+   */
+  void onRemovals(List<Notification<K, V>> notifications);
+
+  /**
+   * Returns the maximum number of notifications that are delivered by a single call to
+   * {@link #onRemovals}.
+   *
+   * @return the maximum size of a batch
+   */
+  default int maximumBatchSize() {
+    return 256;
+  }
+
+  /**
+   * Notifies the listener of a single removal. The default implementation delegates to
+   * {@link #onRemovals} with a batch of one notification.
+   */
+  @Override
+  default void onRemoval(@Nullable K key, @Nullable V value, RemovalCause cause) {
+    onRemovals(List.of(new Notification<>(key, value, cause)));
+  }
+
+  /**
+   * A notification of the removal of a single entry.
+   *
+   * @param <K> the type of the key
+   * @param <V> the type of the value
+   */
+  final class Notification<K, V> {
+    private final @Nullable K key;
+    private final @Nullable V value;
+    private final RemovalCause cause;
+
+    /**
+     * Creates a notification of the entry's removal.
+     *
+     * @param key the key represented by this entry, or {@code null} if collected
+     * @param value the value represented by this entry, or {@code null} if collected
+     * @param cause the reason for which the entry was removed
+     */
+    public Notification(@Nullable K key, @Nullable V value, RemovalCause cause) {
+      this.cause = requireNonNull(cause);
+      this.value = value;
+      this.key = key;
+    }
+
+    /** Returns the key represented by this entry, or {@code null} if collected. */
+    public @Nullable K getKey() {
+      return key;
+    }
+
+    /** Returns the value represented by this entry, or {@code null} if collected. */
+    public @Nullable V getValue() {
+      return value;
+    }
+
+    /** Returns the reason for which the entry was removed. */
+    public RemovalCause getCause() {
+      return cause;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (o == this) {
+        return true;
+      } else if (!(o instanceof Notification)) {
+        return false;
+      }
+      var other = (Notification<?, ?>) o;
+      return Objects.equals(key, other.key)
+          && Objects.equals(value, other.value)
+          && (cause == other.cause);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(key, value, cause);
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value + " (" + cause + ")";
+    }
+  }
+}
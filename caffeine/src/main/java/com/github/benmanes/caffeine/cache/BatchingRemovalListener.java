@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Serializable;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.github.benmanes.caffeine.cache.Async.AsyncRemovalListener;
+import com.github.benmanes.caffeine.cache.BatchRemovalListener.Notification;
+
+/**
+ * A removal listener that accumulates the notifications and delivers them in batches to the
+ * user-supplied {@link BatchRemovalListener}.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+@SuppressWarnings("serial")
+final class BatchingRemovalListener<K, V> implements RemovalListener<K, V>, Runnable, Serializable {
+  static final Logger logger = System.getLogger(BatchingRemovalListener.class.getName());
+  private static final long serialVersionUID = 1L;
+
+  /*
+   * The notifications are appended to an unbounded queue and the first producer to observe that a
+   * delivery is not in progress submits this listener to the executor. The delivery drains the
+   * queue in chunks and then clears the flag, rechecking the queue afterwards in case a producer
+   * appended to it after the final poll but before the flag was cleared.
+   */
+
+  final ConcurrentLinkedQueue<Notification<K, V>> pending;
+  final BatchRemovalListener<K, V> delegate;
+  final AtomicBoolean scheduled;
+  final int maximumBatchSize;
+  final Executor executor;
+
+  BatchingRemovalListener(BatchRemovalListener<K, V> delegate, Executor executor) {
+    this.maximumBatchSize = Math.max(1, delegate.maximumBatchSize());
+    this.pending = new ConcurrentLinkedQueue<>();
+    this.executor = requireNonNull(executor);
+    this.scheduled = new AtomicBoolean();
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void onRemoval(@Nullable K key, @Nullable V value, RemovalCause cause) {
+    pending.add(new Notification<>(key, value, cause));
+    if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(this);
+      } catch (Throwable t) {
+        logger.log(Level.ERROR, "Exception thrown when submitting removal listener", t);
+        run();
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    for (;;) {
+      var batch = new ArrayList<Notification<K, V>>();
+      Notification<K, V> notification;
+      while ((notification = pending.poll()) != null) {
+        batch.add(notification);
+        if (batch.size() == maximumBatchSize) {
+          deliver(batch);
+          batch = new ArrayList<>();
+        }
+      }
+      if (!batch.isEmpty()) {
+        deliver(batch);
+      }
+
+      scheduled.set(false);
+      if (pending.isEmpty() || !scheduled.compareAndSet(false, true)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns if the listener accumulates the notifications and delivers them on the executor, either
+   * directly or once the entry's future completes, so that the cache does not need to submit a task
+   * per removal.
+   */
+  static boolean isBatching(@Nullable RemovalListener<?, ?> listener) {
+    return (listener instanceof BatchingRemovalListener<?, ?>)
+        || ((listener instanceof AsyncRemovalListener<?, ?>)
+            && (((AsyncRemovalListener<?, ?>) listener).delegate
+                instanceof BatchingRemovalListener<?, ?>));
+  }
+
+  /** Delivers the batch to the user-supplied listener. */
+  void deliver(List<Notification<K, V>> batch) {
+    try {
+      delegate.onRemovals(Collections.unmodifiableList(batch));
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Exception thrown by removal listener", t);
+    }
+  }
+
+  Object writeReplace() {
+    return delegate;
+  }
+}
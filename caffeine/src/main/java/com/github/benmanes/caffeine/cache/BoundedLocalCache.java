@@ -33,6 +33,7 @@ import static java.util.Spliterator.NONNULL;
 import static java.util.Spliterator.ORDERED;
 import static java.util.function.Function.identity;
 
+import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
@@ -43,10 +44,12 @@ import java.lang.invoke.VarHandle;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -66,6 +69,7 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
@@ -74,6 +78,7 @@ import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -89,6 +94,7 @@ import com.github.benmanes.caffeine.cache.Async.AsyncExpiry;
 import com.github.benmanes.caffeine.cache.LinkedDeque.PeekingIterator;
 import com.github.benmanes.caffeine.cache.Policy.CacheEntry;
 import com.github.benmanes.caffeine.cache.References.InternalReference;
+import com.github.benmanes.caffeine.cache.References.LookupKeyProbe;
 import com.github.benmanes.caffeine.cache.stats.StatsCounter;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
@@ -206,10 +212,15 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
   static final int WRITE_BUFFER_MIN = 4;
   /** The maximum capacity of the write buffer. */
   static final int WRITE_BUFFER_MAX = 128 * ceilingPowerOfTwo(NCPU);
+  /** The maximum number of a bulk write's policy updates that are submitted as a single task. */
+  static final int WRITE_BATCH_MAX = 16;
   /** The number of attempts to insert into the write buffer before yielding. */
   static final int WRITE_BUFFER_RETRIES = 100;
-  /** The maximum weighted capacity of the map. */
-  static final long MAXIMUM_CAPACITY = Long.MAX_VALUE - Integer.MAX_VALUE;
+  /**
+   * The maximum weighted capacity of the map and of a single entry, so that adding an entry's
+   * weight to a bounded weighted size cannot overflow.
+   */
+  static final long MAXIMUM_CAPACITY = Long.MAX_VALUE >>> 1;
   /** The initial percent of the maximum weighted capacity dedicated to the main space. */
   static final double PERCENT_MAIN = 0.99d;
   /** The percent of the maximum weighted capacity dedicated to the main's protected space. */
@@ -222,8 +233,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
   static final double HILL_CLIMBER_STEP_DECAY_RATE = 0.98d;
   /** The minimum popularity for allowing randomized admission. */
   static final int ADMIT_HASHDOS_THRESHOLD = 6;
+  /** The maximum number of victims that a heavy candidate is compared against for admission. */
+  static final int ADMIT_VICTIMS_THRESHOLD = 16;
   /** The maximum number of entries that can be transferred between queues. */
   static final int QUEUE_TRANSFER_THRESHOLD = 1_000;
+  /** The multiple of the scaled refresh time beyond which an early refresh is not considered. */
+  static final int EARLY_REFRESH_HORIZON = 8;
   /** The maximum time window between entry updates before the expiration must be reordered. */
   static final long EXPIRE_WRITE_TOLERANCE = TimeUnit.SECONDS.toNanos(1);
   /** The maximum duration before an entry expires. */
@@ -237,8 +252,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
   final @Nullable RemovalListener<K, V> evictionListener;
   final @Nullable AsyncCacheLoader<K, V> cacheLoader;
+  final @Nullable CoalescingBulkLoader<K, Object> refreshCoalescer;
+  final @Nullable BoundedNegativeCache<K> negatives;
+  final @Nullable NearCache<K, V> nearCache;
+  final @Nullable HeavyHitters<K> heavyHitters;
+  final @Nullable LoadCostSketch<K> loadCosts;
 
   final MpscGrowableArrayQueue<Runnable> writeBuffer;
+  final LongAdder readBufferDrops;
   final ConcurrentHashMap<Object, Node<K, V>> data;
   final PerformCleanupTask drainBuffersTask;
   final Consumer<Node<K, V>> accessPolicy;
@@ -248,6 +269,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
   final Weigher<K, V> weigher;
   final Executor executor;
 
+  final double earlyRefreshBeta;
+  final boolean isIdentityKeys;
+  final boolean isStrongKeys;
   final boolean isWeighted;
   final boolean isAsync;
 
@@ -255,6 +279,16 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
   @Nullable Collection<V> values;
   @Nullable Set<Entry<K, V>> entrySet;
   @Nullable volatile ConcurrentMap<Object, CompletableFuture<?>> refreshes;
+  volatile long refreshTime;
+
+  @GuardedBy("evictionLock")
+  long evictionCount;
+  @GuardedBy("evictionLock")
+  long expirationCount;
+  @GuardedBy("evictionLock")
+  long maintenanceCount;
+  @GuardedBy("evictionLock")
+  long maintenanceTime;
 
   /** Creates an instance based on the builder's configuration. */
   @SuppressWarnings("GuardedBy")
@@ -264,6 +298,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     this.cacheLoader = cacheLoader;
     executor = builder.getExecutor();
     isWeighted = builder.isWeighted();
+    isStrongKeys = builder.isStrongKeys();
+    isIdentityKeys = !isStrongKeys && !builder.interner;
+    earlyRefreshBeta = builder.getEarlyRefreshBeta();
     evictionLock = new ReentrantLock();
     weigher = builder.getWeigher(isAsync);
     drainBuffersTask = new PerformCleanupTask(this);
@@ -275,6 +312,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         : Buffer.disabled();
     accessPolicy = (evicts() || expiresAfterAccess()) ? this::onAccess : e -> {};
     writeBuffer = new MpscGrowableArrayQueue<>(WRITE_BUFFER_MIN, WRITE_BUFFER_MAX);
+    loadCosts = (evicts() && builder.isMissCostAware()) ? new LoadCostSketch<>() : null;
+    refreshCoalescer = newRefreshCoalescer(builder);
+    negatives = builder.cachesNegatives() ? new BoundedNegativeCache<>(builder) : null;
+    nearCache = builder.hasNearCache() ? new NearCache<>(this, builder.nearCacheMaximumSize) : null;
+    heavyHitters = builder.tracksHeavyHitters()
+        ? new HeavyHitters<>(builder.heavyHittersCapacity)
+        : null;
+    readBufferDrops = new LongAdder();
 
     if (evicts()) {
       setMaximumSize(builder.getMaximum());
@@ -372,14 +417,54 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     }
   }
 
+  @Override
+  public @Nullable BoundedNegativeCache<K> negativeCache() {
+    return negatives;
+  }
+
+  /** Forgets that the key is absent, as a value was written for it or it was invalidated. */
+  void discardNegative(Object key) {
+    var absentKeys = negatives;
+    if (absentKeys != null) {
+      absentKeys.absent.invalidate(key);
+    }
+  }
+
   @Override
   public Object referenceKey(K key) {
-    return nodeFactory.newLookupKey(key);
+    return lookupKey(key);
+  }
+
+  /**
+   * Returns a key suitable for looking up an entry in the cache. When the keys are held strongly
+   * the key is returned directly, which avoids a megamorphic dispatch to the node factory on the
+   * read path when many cache configurations are in use.
+   */
+  final Object lookupKey(Object key) {
+    return isStrongKeys ? key : nodeFactory.newLookupKey(key);
+  }
+
+  /**
+   * Returns the node mapped to the key, or null if absent. When the keys are held weakly and are
+   * compared by identity, the lookup uses the thread's reusable probe rather than allocating a
+   * lookup key, as a read must not pay for an allocation that only lives for the hash table probe.
+   */
+  final @Nullable Node<K, V> getNode(Object key) {
+    if (!isIdentityKeys) {
+      return data.get(lookupKey(key));
+    }
+    var probe = LookupKeyProbe.PROBES.get();
+    probe.set(key);
+    try {
+      return data.get(probe);
+    } finally {
+      probe.clear();
+    }
   }
 
   @Override
   public boolean isPendingEviction(K key) {
-    Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
+    Node<K, V> node = getNode(key);
     return (node != null)
         && ((node.getValue() == null) || hasExpired(node, expirationTicker().read()));
   }
@@ -401,6 +486,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     return Ticker.disabledTicker();
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public void recordLoadCost(Object key, long loadTime) {
+    if (loadCosts != null) {
+      loadCosts.record((K) key, loadTime);
+    }
+  }
+
   /* --------------- Removal Listener Support --------------- */
 
   @SuppressWarnings("NullAway")
@@ -416,6 +509,10 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
   public void notifyRemoval(@Nullable K key, @Nullable V value, RemovalCause cause) {
     if (!hasRemovalListener()) {
       return;
+    } else if (BatchingRemovalListener.isBatching(removalListener())) {
+      // Accumulated and delivered in batches on the executor
+      removalListener().onRemoval(key, value, cause);
+      return;
     }
     Runnable task = () -> {
       try {
@@ -697,6 +794,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     if ((frequencySketch() != null) && !isWeighted() && (weightedSize() >= (max >>> 1))) {
       // Lazily initialize when close to the maximum size
       frequencySketch().ensureCapacity(max);
+      if (loadCosts != null) {
+        loadCosts.ensureCapacity(max);
+      }
     }
   }
 
@@ -856,11 +956,18 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         continue;
       }
 
-      // Evict the entry with the lowest frequency
-      if (admit(candidateKey, victimKey)) {
-        Node<K, V> evict = victim;
-        victim = victim.getNextInAccessOrder();
-        evictEntry(evict, RemovalCause.SIZE, 0L);
+      // Evict the entry with the lowest frequency, where a candidate that is heavier than the
+      // victim is compared against the combined popularity of the victims that it would displace
+      int victims = isWeighted() ? victimsToDisplace(candidate, victim) : 1;
+      boolean admit = (victims == 1)
+          ? admit(candidateKey, victimKey)
+          : admit(candidateKey, victim, victims);
+      if (admit) {
+        for (int i = 0; (i < victims) && (victim != null) && (victim != candidate); i++) {
+          Node<K, V> evict = victim;
+          victim = victim.getNextInAccessOrder();
+          evictEntry(evict, RemovalCause.SIZE, 0L);
+        }
         candidate = candidate.getNextInAccessOrder();
       } else {
         Node<K, V> evict = candidate;
@@ -882,9 +989,92 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
    */
   @GuardedBy("evictionLock")
   boolean admit(K candidateKey, K victimKey) {
-    int victimFreq = frequencySketch().frequency(victimKey);
+    int victimFreq = costAwareFrequency(victimKey);
     int candidateFreq = frequencySketch().frequency(candidateKey);
-    if (candidateFreq > victimFreq) {
+    return admit(candidateFreq, costAwareFrequency(candidateKey, candidateFreq), victimFreq);
+  }
+
+  /**
+   * Returns the estimated popularity of the key, scaled by the estimated cost of loading it if the
+   * cache is aware of the miss penalty. This favors retaining an entry that is expensive to reload
+   * over a cheaper one of similar popularity, which reduces the total time spent on loading even
+   * if the hit rate is unchanged.
+   */
+  @GuardedBy("evictionLock")
+  int costAwareFrequency(K key) {
+    return costAwareFrequency(key, frequencySketch().frequency(key));
+  }
+
+  /** Returns the key's estimated popularity scaled by the estimated cost of loading it, if any. */
+  @GuardedBy("evictionLock")
+  int costAwareFrequency(K key, int frequency) {
+    return (loadCosts == null) ? frequency : frequency * (1 + loadCosts.cost(key));
+  }
+
+  /**
+   * Returns the number of victims, starting from and including the given victim, whose combined
+   * weight is needed to make room for the candidate. This is the fewest victims whose weight covers
+   * either the candidate's weight or the excess over the maximum, whichever is smaller, so that the
+   * weight that is evicted is comparable regardless of whether the candidate is admitted.
+   *
+   * @param candidate the entry being proposed for long term retention
+   * @param victim the entry chosen by the eviction policy for replacement
+   * @return the number of victims that the candidate would displace
+   */
+  @GuardedBy("evictionLock")
+  int victimsToDisplace(Node<K, V> candidate, Node<K, V> victim) {
+    long required = Math.min(candidate.getPolicyWeight(), weightedSize() - maximum());
+    long weight = victim.getPolicyWeight();
+    int victims = 1;
+    for (Node<K, V> node = victim.getNextInAccessOrder();
+        (weight < required) && (node != null) && (node != candidate)
+            && (victims < ADMIT_VICTIMS_THRESHOLD);
+        node = node.getNextInAccessOrder()) {
+      weight += node.getPolicyWeight();
+      victims++;
+    }
+    return victims;
+  }
+
+  /**
+   * Determines if the candidate should be accepted into the main space, as determined by its
+   * frequency relative to the combined frequency of the victims that it would displace. This
+   * prevents a heavy candidate from evicting many lighter entries that are collectively more
+   * popular, which improves the byte hit rate when the entries have variable weights.
+   *
+   * @param candidateKey the key for the entry being proposed for long term retention
+   * @param victim the first entry chosen by the eviction policy for replacement
+   * @param victims the number of victims, in access order, that the candidate would displace
+   * @return if the candidate should be admitted and the victims ejected
+   */
+  @GuardedBy("evictionLock")
+  boolean admit(K candidateKey, Node<K, V> victim, int victims) {
+    int victimFreq = 0;
+    Node<K, V> node = victim;
+    for (int i = 0; (i < victims) && (node != null); i++) {
+      K key = node.getKey();
+      if (key != null) {
+        victimFreq += costAwareFrequency(key);
+      }
+      node = node.getNextInAccessOrder();
+    }
+    int candidateFreq = frequencySketch().frequency(candidateKey);
+    return admit(candidateFreq, costAwareFrequency(candidateKey, candidateFreq), victimFreq);
+  }
+
+  /**
+   * Returns if the candidate should be admitted based on its and the victims' frequencies. The
+   * entries are compared by their cost-aware frequencies, whereas the protection against hash
+   * flooding applies to the candidate's frequency in the sketch, so that the threshold of a warm
+   * candidate keeps its meaning when the frequencies are scaled by the load costs.
+   *
+   * @param candidateFreq the candidate's frequency in the sketch
+   * @param candidateCostAwareFreq the candidate's frequency scaled by its load cost
+   * @param victimFreq the victims' combined frequency scaled by their load costs
+   * @return if the candidate should be admitted and the victims ejected
+   */
+  static boolean admit(int candidateFreq, int candidateCostAwareFreq, int victimFreq) {
+    if (candidateCostAwareFreq > victimFreq) {
       return true;
     } else if (candidateFreq >= ADMIT_HASHDOS_THRESHOLD) {
       // The maximum frequency is 15 and halved to 7 after a reset to age the history. An attack
@@ -1061,7 +1251,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
             return n;
           }
         } else if (actualCause[0] == RemovalCause.SIZE) {
-          int weight = node.getWeight();
+          long weight = node.getWeight();
           if (weight == 0) {
             resurrect[0] = true;
             return n;
@@ -1106,6 +1296,11 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     }
 
     if (removed[0]) {
+      if (actualCause[0] == RemovalCause.EXPIRED) {
+        expirationCount++;
+      } else {
+        evictionCount++;
+      }
       statsCounter().recordEviction(node.getWeight(), actualCause[0]);
       notifyRemoval(key, value[0], actualCause[0]);
     }
@@ -1130,6 +1325,8 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     } else {
       decreaseWindow();
     }
+    CacheEvents.windowAdjustment(amount, windowMaximum(),
+        mainProtectedMaximum(), stepSize(), previousSampleHitRate());
   }
 
   /** Calculates the amount to adapt the window by and sets {@link #adjustment()} accordingly. */
@@ -1189,7 +1386,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         break;
       }
 
-      int weight = candidate.getPolicyWeight();
+      long weight = candidate.getPolicyWeight();
       if (quota < weight) {
         break;
       }
@@ -1228,7 +1425,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         break;
       }
 
-      int weight = candidate.getPolicyWeight();
+      long weight = candidate.getPolicyWeight();
       if (quota < weight) {
         break;
       }
@@ -1283,16 +1480,67 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       statsCounter().recordHits(1);
     }
 
-    boolean delayable = skipReadBuffer() || (readBuffer.offer(node) != Buffer.FULL);
+    int result = skipReadBuffer() ? Buffer.SUCCESS : readBuffer.offer(node);
+    if (result != Buffer.SUCCESS) {
+      readBufferDrops.increment();
+    }
+    boolean delayable = (result != Buffer.FULL);
     if (shouldDrainBuffers(delayable)) {
       scheduleDrainBuffers();
     }
     return refreshIfNeeded(node, now);
   }
 
+  /**
+   * Records the hits of an entry that were served by a thread's near cache and, if it is still
+   * alive, credits the entry with an access by the eviction policy.
+   *
+   * @param node the entry that was read
+   * @param hits the number of hits to record in the statistics
+   */
+  void creditNearCacheHits(Node<K, V> node, int hits) {
+    if (hits > 0) {
+      statsCounter().recordHits(hits);
+    }
+    if (node.isAlive()) {
+      afterRead(node, expirationTicker().read(), /* recordHit */ false);
+    }
+  }
+
   /** Returns if the cache should bypass the read buffer. */
   boolean skipReadBuffer() {
-    return fastpath() && frequencySketch().isNotInitialized();
+    return fastpath() && frequencySketch().isNotInitialized() && (heavyHitters == null);
+  }
+
+  /**
+   * Returns the duration after which an entry is eligible for refresh. If early refreshes are
+   * enabled then the duration is shortened by a random amount that follows the XFetch algorithm,
+   * {@code refreshTime * beta * -ln(random)}, so that the probability of refreshing rises
+   * exponentially as the entry approaches the configured refresh interval.
+   *
+   * @param elapsed the time, in nanoseconds, since the entry was last written
+   * @return the duration, in nanoseconds, after which the entry should be refreshed
+   */
+  long refreshAfterWriteNanos(long elapsed) {
+    long refreshNanos = refreshAfterWriteNanos();
+    if (earlyRefreshBeta == 0) {
+      return refreshNanos;
+    }
+    double scaledRefreshTime = earlyRefreshBeta * refreshTime;
+    if ((scaledRefreshTime == 0.0)
+        || (elapsed < (refreshNanos - EARLY_REFRESH_HORIZON * scaledRefreshTime))) {
+      return refreshNanos;
+    }
+    double random = ThreadLocalRandom.current().nextDouble();
+    double early = Math.min(-scaledRefreshTime * Math.log(random), refreshNanos);
+    return refreshNanos - (long) early;
+  }
+
+  /** Updates the moving average of the time that it takes to refresh an entry. */
+  void recordRefreshTime(long duration) {
+    long sample = Math.max(0L, duration);
+    long average = refreshTime;
+    refreshTime = (average == 0) ? sample : (average + ((sample - average) >> 3));
   }
 
   /**
@@ -1314,13 +1562,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     long refreshWriteTime = writeTime | 1L;
     Object keyReference = node.getKeyReference();
     ConcurrentMap<Object, CompletableFuture<?>> refreshes;
-    if (((now - writeTime) > refreshAfterWriteNanos()) && (keyReference != null)
+    if (((now - writeTime) > refreshAfterWriteNanos(now - writeTime)) && (keyReference != null)
         && ((key = node.getKey()) != null) && ((oldValue = node.getValue()) != null)
         && ((writeTime & 1L) == 0L) && !(refreshes = refreshes()).containsKey(keyReference)
         && node.isAlive() && node.casWriteTime(writeTime, refreshWriteTime)) {
       long[] startTime = new long[1];
       @SuppressWarnings({"rawtypes", "unchecked"})
       CompletableFuture<? extends V>[] refreshFuture = new CompletableFuture[1];
+      var loadEvent = CacheEvents.beginLoad(/* refresh */ true);
       try {
         refreshes.computeIfAbsent(keyReference, k -> {
           try {
@@ -1330,7 +1579,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
               CompletableFuture<V> future = (CompletableFuture<V>) oldValue;
               if (Async.isReady(future)) {
                 @SuppressWarnings("NullAway")
-                var refresh = cacheLoader.asyncReload(key, future.join(), executor);
+                var refresh = (refreshCoalescer == null)
+                    ? cacheLoader.asyncReload(key, future.join(), executor)
+                    : new CompletableFuture<V>();
                 refreshFuture[0] = requireNonNull(refresh, "Null future");
               } else {
                 // no-op if load is pending
@@ -1338,7 +1589,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
               }
             } else {
               @SuppressWarnings("NullAway")
-              var refresh = cacheLoader.asyncReload(key, oldValue, executor);
+              var refresh = (refreshCoalescer == null)
+                  ? cacheLoader.asyncReload(key, oldValue, executor)
+                  : new CompletableFuture<V>();
               refreshFuture[0] = requireNonNull(refresh, "Null future");
             }
             return refreshFuture[0];
@@ -1361,6 +1614,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
       var refreshed = refreshFuture[0].handle((newValue, error) -> {
         long loadTime = statsTicker().read() - startTime[0];
+        if (earlyRefreshBeta > 0) {
+          recordRefreshTime(expirationTicker().read() - now);
+        }
+        if (loadEvent != null) {
+          CacheEvents.commitLoad(loadEvent, (error == null) && (newValue != null));
+        }
         if (error != null) {
           if (!(error instanceof CancellationException) && !(error instanceof TimeoutException)) {
             logger.log(Level.WARNING, "Exception thrown during refresh", error);
@@ -1404,17 +1663,111 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
           statsCounter().recordLoadFailure(loadTime);
         } else {
           statsCounter().recordLoadSuccess(loadTime);
+          recordLoadCost(key, loadTime);
         }
 
         refreshes.remove(keyReference, refreshFuture[0]);
         return result;
       });
+      if (refreshCoalescer != null) {
+        // Joins the batch after the refresh is registered, as the batch may complete immediately
+        @SuppressWarnings("unchecked")
+        var pending = (CompletableFuture<Object>) refreshFuture[0];
+        coalesceRefresh(refreshCoalescer, key, pending);
+      }
       return Async.getIfReady(refreshed);
     }
 
     return null;
   }
 
+  /** Returns a coalescer that reloads the refreshed entries in batches, if enabled. */
+  @Nullable CoalescingBulkLoader<K, Object> newRefreshCoalescer(Caffeine<K, V> builder) {
+    if (!builder.coalescesRefreshes() || (cacheLoader == null)) {
+      return null;
+    }
+    return new CoalescingBulkLoader<K, Object>(this::reloadAll,
+        builder.refreshCoalesceMaximumBatchSize, builder.refreshCoalesceMaximumDelayNanos);
+  }
+
+  /** Adds the key to the pending batch of reloads and completes the refresh with its result. */
+  void coalesceRefresh(CoalescingBulkLoader<K, Object> coalescer,
+      K key, CompletableFuture<Object> refreshFuture) {
+    try {
+      coalescer.apply(key, executor).whenComplete((newValue, error) -> {
+        if (error == null) {
+          refreshFuture.complete(newValue);
+        } else {
+          refreshFuture.completeExceptionally(error);
+        }
+      });
+    } catch (Throwable t) {
+      refreshFuture.completeExceptionally(t);
+    } finally {
+      coalescer.runDeferred();
+    }
+  }
+
+  /**
+   * Reloads the batch of keys by using the values that are currently present as the old values.
+   * An entry that was removed or replaced while the batch was pending is resolved by the conflict
+   * checks of the refresh that it was added by.
+   */
+  @SuppressWarnings("unchecked")
+  CompletableFuture<Map<K, Object>> reloadAll(Set<? extends K> keys, Executor executor) {
+    var oldValues = new LinkedHashMap<K, Object>(calculateHashMapCapacity(keys));
+    for (K key : keys) {
+      Object oldValue = getIfPresentQuietly(key);
+      if (isAsync && (oldValue != null)) {
+        oldValue = Async.getIfReady((CompletableFuture<?>) oldValue);
+      }
+      if (oldValue != null) {
+        oldValues.put(key, oldValue);
+      }
+    }
+    if (oldValues.isEmpty()) {
+      return CompletableFuture.completedFuture(Map.of());
+    }
+    try {
+      var loader = (AsyncCacheLoader<K, Object>) requireNonNull(cacheLoader);
+      var reloaded = loader.asyncReloadAll(oldValues, executor);
+      return (CompletableFuture<Map<K, Object>>) requireNonNull(reloaded, "Null future");
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    } catch (Exception e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  /** Returns whether the supplied cache loader has bulk reload functionality. */
+  static boolean canBulkReload(AsyncCacheLoader<?, ?> loader) {
+    try {
+      Class<?> defaultLoaderClass = AsyncCacheLoader.class;
+      if (loader instanceof CacheLoader<?, ?>) {
+        defaultLoaderClass = CacheLoader.class;
+        if (overrides(loader, CacheLoader.class, "reloadAll", Map.class)
+            || overrides(loader, CacheLoader.class, "loadAll", Set.class)) {
+          return true;
+        }
+      }
+      return overrides(loader, defaultLoaderClass, "asyncReloadAll", Map.class, Executor.class)
+          || overrides(loader, defaultLoaderClass, "asyncLoadAll", Set.class, Executor.class);
+    } catch (NoSuchMethodException | SecurityException e) {
+      logger.log(Level.WARNING, "Cannot determine if CacheLoader can bulk reload", e);
+      return false;
+    }
+  }
+
+  /** Returns whether the loader's method differs from the default implementation. */
+  static boolean overrides(Object loader, Class<?> defaultClass,
+      String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+    return !loader.getClass().getMethod(name, parameterTypes)
+        .equals(defaultClass.getMethod(name, parameterTypes));
+  }
+
   /**
    * Returns the expiration time for the entry after being created.
    *
@@ -1544,6 +1897,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     // running computation due to an eviction listener, the victim is being computed on by a writer,
     // or the victim residing in the same hash bin as a computing entry. In those cases a warning is
     // logged to encourage the application to decouple these computations from the map operations.
+    var event = CacheEvents.beginWriteBufferFull(WRITE_BUFFER_RETRIES, writeBuffer.size());
     lock();
     try {
       maintenance(task);
@@ -1551,14 +1905,36 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       logger.log(Level.ERROR, "Exception thrown when performing the maintenance task", e);
     } finally {
       evictionLock.unlock();
+      if (event != null) {
+        CacheEvents.commitWriteBufferFull(event);
+      }
     }
     rescheduleCleanUpIfIncomplete();
   }
 
+  /**
+   * Performs the post-processing work required after a write, deferring it if part of a bulk write.
+   *
+   * @param task the pending operation to be applied
+   * @param batch the pending bulk write to append the task to, or null to schedule it immediately
+   */
+  void afterWrite(Runnable task, @Nullable WriteBatch batch) {
+    if (batch == null) {
+      afterWrite(task);
+    } else {
+      batch.add(task);
+    }
+  }
+
   /** Acquires the eviction lock. */
   void lock() {
+    if (evictionLock.tryLock()) {
+      return;
+    }
+
     long remainingNanos = WARN_AFTER_LOCK_WAIT_NANOS;
     long end = System.nanoTime() + remainingNanos;
+    var event = CacheEvents.beginLockWait();
     boolean interrupted = false;
     try {
       for (;;) {
@@ -1578,6 +1954,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         }
       }
     } finally {
+      if (event != null) {
+        CacheEvents.commitLockWait(event);
+      }
       if (interrupted) {
         Thread.currentThread().interrupt();
       }
@@ -1707,10 +2086,15 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
   void maintenance(@Nullable Runnable task) {
     setDrainStatusRelease(PROCESSING_TO_IDLE);
 
+    var event = CacheEvents.beginMaintenance();
+    long evictions = evictionCount;
+    long expirations = expirationCount;
+    long startTime = System.nanoTime();
+    int writes = 0;
     try {
       drainReadBuffer();
 
-      drainWriteBuffer();
+      writes = drainWriteBuffer();
       if (task != null) {
         task.run();
       }
@@ -1727,6 +2111,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
           || !casDrainStatus(PROCESSING_TO_IDLE, IDLE)) {
         setDrainStatusOpaque(REQUIRED);
       }
+      maintenanceTime += Math.max(0L, System.nanoTime() - startTime);
+      maintenanceCount++;
+      if (event != null) {
+        CacheEvents.commitMaintenance(event, writes, evictionCount - evictions,
+            expirationCount - expirations, evicts() ? weightedSize() : data.mappingCount());
+      }
     }
   }
 
@@ -1779,6 +2169,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         return;
       }
       frequencySketch().increment(key);
+      recordHeavyHitter(key);
       if (node.inWindow()) {
         reorder(accessOrderWindowDeque(), node);
       } else if (node.inMainProbation()) {
@@ -1795,6 +2186,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     }
   }
 
+  /** Records an occurrence of the key in the heavy hitters, if tracked. */
+  @GuardedBy("evictionLock")
+  void recordHeavyHitter(K key) {
+    if (heavyHitters != null) {
+      heavyHitters.record(key, frequencySketch().sampleSize);
+    }
+  }
+
   /** Promote the node from probation to protected on an access. */
   @GuardedBy("evictionLock")
   void reorderProbation(Node<K, V> node) {
@@ -1824,17 +2223,24 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     }
   }
 
-  /** Drains the write buffer. */
+  /**
+   * Drains the write buffer.
+   *
+   * @return the number of pending operations that were applied
+   */
   @GuardedBy("evictionLock")
-  void drainWriteBuffer() {
-    for (int i = 0; i <= WRITE_BUFFER_MAX; i++) {
+  int drainWriteBuffer() {
+    int drained = 0;
+    while (drained <= WRITE_BUFFER_MAX) {
       Runnable task = writeBuffer.poll();
       if (task == null) {
-        return;
+        return drained;
       }
       task.run();
+      drained += (task instanceof BatchTask) ? ((BatchTask) task).tasks.length : 1;
     }
     setDrainStatusOpaque(PROCESSING_TO_REQUIRED);
+    return drained;
   }
 
   /**
@@ -1867,9 +2273,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
   /** Adds the node to the page replacement policy. */
   final class AddTask implements Runnable {
     final Node<K, V> node;
-    final int weight;
+    final long weight;
 
-    AddTask(Node<K, V> node, int weight) {
+    AddTask(Node<K, V> node, long weight) {
       this.weight = weight;
       this.node = node;
     }
@@ -1891,12 +2297,16 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
             // Lazily initialize when close to the maximum
             long capacity = isWeighted() ? data.mappingCount() : maximum;
             frequencySketch().ensureCapacity(capacity);
+            if (loadCosts != null) {
+              loadCosts.ensureCapacity(capacity);
+            }
           }
         }
 
         K key = node.getKey();
         if (key != null) {
           frequencySketch().increment(key);
+          recordHeavyHitter(key);
         }
 
         setMissesInSample(missesInSample() + 1);
@@ -1973,10 +2383,10 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
   /** Updates the weighted size. */
   final class UpdateTask implements Runnable {
-    final int weightDifference;
+    final long weightDifference;
     final Node<K, V> node;
 
-    public UpdateTask(Node<K, V> node, int weightDifference) {
+    public UpdateTask(Node<K, V> node, long weightDifference) {
       this.weightDifference = weightDifference;
       this.node = node;
     }
@@ -1990,7 +2400,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         timerWheel().reschedule(node);
       }
       if (evicts()) {
-        int oldWeightedSize = node.getPolicyWeight();
+        long oldWeightedSize = node.getPolicyWeight();
         node.setPolicyWeight(oldWeightedSize + weightDifference);
         if (node.inWindow()) {
           setWindowWeightedSize(windowWeightedSize() + weightDifference);
@@ -2026,6 +2436,63 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     }
   }
 
+  /**
+   * Applies the policy updates of a bulk write in a single write buffer task. Each of its updates
+   * counts towards the number of tasks that may be applied by a drain of the write buffer.
+   */
+  static final class BatchTask implements Runnable {
+    final Runnable[] tasks;
+
+    BatchTask(Runnable[] tasks) {
+      this.tasks = tasks;
+    }
+
+    @Override
+    @GuardedBy("evictionLock")
+    public void run() {
+      for (var task : tasks) {
+        task.run();
+      }
+    }
+  }
+
+  /**
+   * Accumulates the policy updates of a bulk write so that they are submitted as a single task,
+   * rather than scheduling the maintenance work for every entry. The batch is flushed when it holds
+   * {@link #WRITE_BATCH_MAX} updates, so that a bulk write does not defer the eviction of the
+   * entries that it adds by much more than when the writes are performed individually. This is not
+   * thread-safe and is used only by the thread performing the bulk write.
+   */
+  final class WriteBatch {
+    final Runnable[] tasks;
+    int size;
+
+    WriteBatch() {
+      this.tasks = new Runnable[WRITE_BATCH_MAX];
+    }
+
+    /** Appends the task, submitting the batch to the write buffer if it is full. */
+    void add(Runnable task) {
+      if (size == tasks.length) {
+        flush();
+      }
+      tasks[size++] = task;
+    }
+
+    /** Submits the pending tasks to the write buffer and resets the batch. */
+    void flush() {
+      if (size == 0) {
+        return;
+      } else if (size == 1) {
+        afterWrite(tasks[0]);
+      } else {
+        afterWrite(new BatchTask(Arrays.copyOf(tasks, size)));
+      }
+      Arrays.fill(tasks, 0, size, null);
+      size = 0;
+    }
+  }
+
   /* --------------- Concurrent Map Support --------------- */
 
   @Override
@@ -2087,6 +2554,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     if (collectKeys() && cleanUp) {
       cleanUp();
     }
+    if (negatives != null) {
+      negatives.invalidateAll();
+    }
+    if (nearCache != null) {
+      nearCache.clear();
+    }
   }
 
   @GuardedBy("evictionLock")
@@ -2150,7 +2623,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
   @Override
   public boolean containsKey(Object key) {
-    Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
+    Node<K, V> node = getNode(key);
     return (node != null) && (node.getValue() != null)
         && !hasExpired(node, expirationTicker().read());
   }
@@ -2176,7 +2649,17 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
   @Override
   public @Nullable V getIfPresent(Object key, boolean recordStats) {
-    Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
+    var near = nearCache;
+    NearCache.Table<K, V> table = null;
+    if (near != null) {
+      table = near.table();
+      V value = near.getIfPresent(table, key, recordStats);
+      if (value != null) {
+        return value;
+      }
+    }
+
+    Node<K, V> node = getNode(key);
     if (node == null) {
       if (recordStats) {
         statsCounter().recordMisses(1);
@@ -2204,13 +2687,16 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       tryExpireAfterRead(node, castedKey, value, expiry(), now);
     }
     V refreshed = afterRead(node, now, recordStats);
+    if ((near != null) && (table != null)) {
+      near.offer(table, key, node);
+    }
     return (refreshed == null) ? value : refreshed;
   }
 
   @Override
   public @Nullable V getIfPresentQuietly(Object key) {
     V value;
-    Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
+    Node<K, V> node = getNode(key);
     if ((node == null) || ((value = node.getValue()) == null)
         || hasExpired(node, expirationTicker().read())) {
       return null;
@@ -2227,7 +2713,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
    * @throws NullPointerException if the specified key is null
    */
   public @Nullable K getKey(K key) {
-    Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
+    Node<K, V> node = getNode(key);
     if (node == null) {
       if (drainStatusOpaque() == REQUIRED) {
         scheduleDrainBuffers();
@@ -2250,7 +2736,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     for (var iter = result.entrySet().iterator(); iter.hasNext();) {
       V value;
       var entry = iter.next();
-      Node<K, V> node = data.get(nodeFactory.newLookupKey(entry.getKey()));
+      Node<K, V> node = getNode(entry.getKey());
       if ((node == null) || ((value = node.getValue()) == null) || hasExpired(node, now)) {
         iter.remove();
       } else {
@@ -2270,7 +2756,16 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
   @Override
   public void putAll(Map<? extends K, ? extends V> map) {
-    map.forEach(this::put);
+    if (map.size() <= 1) {
+      map.forEach(this::put);
+      return;
+    }
+    var batch = new WriteBatch();
+    try {
+      map.forEach((key, value) -> put(key, value, expiry(), /* onlyIfAbsent */ false, batch));
+    } finally {
+      batch.flush();
+    }
   }
 
   @Override
@@ -2294,13 +2789,29 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
    * @return the prior value in or null if no mapping was found
    */
   @Nullable V put(K key, V value, Expiry<K, V> expiry, boolean onlyIfAbsent) {
+    return put(key, value, expiry, onlyIfAbsent, /* batch */ null);
+  }
+
+  /**
+   * Adds a node to the policy and the data store. If an existing node is found, then its value is
+   * updated if allowed.
+   *
+   * @param key key with which the specified value is to be associated
+   * @param value value to be associated with the specified key
+   * @param expiry the calculator for the write expiration time
+   * @param onlyIfAbsent a write is performed only if the key is not already associated with a value
+   * @param batch the pending bulk write to append the policy's task to, or null to schedule it
+   * @return the prior value in or null if no mapping was found
+   */
+  @Nullable V put(K key, V value, Expiry<K, V> expiry,
+      boolean onlyIfAbsent, @Nullable WriteBatch batch) {
     requireNonNull(key);
     requireNonNull(value);
 
     Node<K, V> node = null;
     long now = expirationTicker().read();
-    int newWeight = weigher.weigh(key, value);
-    Object lookupKey = nodeFactory.newLookupKey(key);
+    long newWeight = weigher.weighLong(key, value);
+    Object lookupKey = lookupKey(key);
     for (int attempts = 1; ; attempts++) {
       Node<K, V> prior = data.get(lookupKey);
       if (prior == null) {
@@ -2311,7 +2822,8 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         }
         prior = data.putIfAbsent(node.getKeyReference(), node);
         if (prior == null) {
-          afterWrite(new AddTask(node, newWeight));
+          afterWrite(new AddTask(node, newWeight), batch);
+          discardNegative(key);
           return null;
         } else if (onlyIfAbsent) {
           // An optimistic fast path to avoid unnecessary locking
@@ -2364,7 +2876,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
       V oldValue;
       long varTime;
-      int oldWeight;
+      long oldWeight;
       boolean expired = false;
       boolean mayUpdate = true;
       boolean exceedsTolerance = false;
@@ -2413,17 +2925,20 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         notifyOnReplace(key, oldValue, value);
       }
 
-      int weightedDifference = mayUpdate ? (newWeight - oldWeight) : 0;
+      long weightedDifference = mayUpdate ? (newWeight - oldWeight) : 0;
       if ((oldValue == null) || (weightedDifference != 0) || expired) {
-        afterWrite(new UpdateTask(prior, weightedDifference));
+        afterWrite(new UpdateTask(prior, weightedDifference), batch);
       } else if (!onlyIfAbsent && exceedsTolerance) {
-        afterWrite(new UpdateTask(prior, weightedDifference));
+        afterWrite(new UpdateTask(prior, weightedDifference), batch);
       } else {
         if (mayUpdate) {
           setWriteTime(prior, now);
         }
         afterRead(prior, now, /* recordHit */ false);
       }
+      if (mayUpdate) {
+        discardNegative(key);
+      }
 
       return expired ? null : oldValue;
     }
@@ -2431,6 +2946,29 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
   @Override
   public @Nullable V remove(Object key) {
+    return remove(key, /* batch */ null);
+  }
+
+  @Override
+  public void invalidateAll(Iterable<?> keys) {
+    var batch = new WriteBatch();
+    try {
+      for (Object key : keys) {
+        remove(key, batch);
+      }
+    } finally {
+      batch.flush();
+    }
+  }
+
+  /**
+   * Removes the mapping for the key if present.
+   *
+   * @param key key whose mapping is to be removed
+   * @param batch the pending bulk write to append the policy's task to, or null to schedule it
+   * @return the removed value or null if no mapping was found
+   */
+  @Nullable V remove(Object key, @Nullable WriteBatch batch) {
     @SuppressWarnings("unchecked")
     K castKey = (K) key;
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -2438,7 +2976,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     @SuppressWarnings("unchecked")
     V[] oldValue = (V[]) new Object[1];
     RemovalCause[] cause = new RemovalCause[1];
-    Object lookupKey = nodeFactory.newLookupKey(key);
+    Object lookupKey = lookupKey(key);
 
     data.computeIfPresent(lookupKey, (k, n) -> {
       synchronized (n) {
@@ -2462,9 +3000,10 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     });
 
     if (cause[0] != null) {
-      afterWrite(new RemovalTask(node[0]));
+      afterWrite(new RemovalTask(node[0]), batch);
       notifyRemoval(castKey, oldValue[0], cause[0]);
     }
+    discardNegative(key);
     return (cause[0] == RemovalCause.EXPLICIT) ? oldValue[0] : null;
   }
 
@@ -2482,7 +3021,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     @SuppressWarnings("unchecked")
     V[] oldValue = (V[]) new Object[1];
     RemovalCause[] cause = new RemovalCause[1];
-    Object lookupKey = nodeFactory.newLookupKey(key);
+    Object lookupKey = lookupKey(key);
 
     data.computeIfPresent(lookupKey, (kR, node) -> {
       synchronized (node) {
@@ -2522,14 +3061,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     requireNonNull(key);
     requireNonNull(value);
 
-    int[] oldWeight = new int[1];
+    long[] oldWeight = new long[1];
     @SuppressWarnings("unchecked")
     K[] nodeKey = (K[]) new Object[1];
     @SuppressWarnings("unchecked")
     V[] oldValue = (V[]) new Object[1];
     long[] now = new long[1];
-    int weight = weigher.weigh(key, value);
-    Node<K, V> node = data.computeIfPresent(nodeFactory.newLookupKey(key), (k, n) -> {
+    long weight = weigher.weighLong(key, value);
+    Node<K, V> node = data.computeIfPresent(lookupKey(key), (k, n) -> {
       synchronized (n) {
         requireIsAlive(key, n);
         nodeKey[0] = n.getKey();
@@ -2557,7 +3096,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       return null;
     }
 
-    int weightedDifference = (weight - oldWeight[0]);
+    long weightedDifference = (weight - oldWeight[0]);
     if (expiresAfterWrite() || (weightedDifference != 0)) {
       afterWrite(new UpdateTask(node, weightedDifference));
     } else {
@@ -2579,15 +3118,15 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     requireNonNull(oldValue);
     requireNonNull(newValue);
 
-    int weight = weigher.weigh(key, newValue);
+    long weight = weigher.weighLong(key, newValue);
     boolean[] replaced = new boolean[1];
     @SuppressWarnings("unchecked")
     K[] nodeKey = (K[]) new Object[1];
     @SuppressWarnings("unchecked")
     V[] prevValue = (V[]) new Object[1];
-    int[] oldWeight = new int[1];
+    long[] oldWeight = new long[1];
     long[] now = new long[1];
-    Node<K, V> node = data.computeIfPresent(nodeFactory.newLookupKey(key), (k, n) -> {
+    Node<K, V> node = data.computeIfPresent(lookupKey(key), (k, n) -> {
       synchronized (n) {
         requireIsAlive(key, n);
         nodeKey[0] = n.getKey();
@@ -2618,7 +3157,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       return false;
     }
 
-    int weightedDifference = (weight - oldWeight[0]);
+    long weightedDifference = (weight - oldWeight[0]);
     if (expiresAfterWrite() || (weightedDifference != 0)) {
       afterWrite(new UpdateTask(node, weightedDifference));
     } else {
@@ -2637,7 +3176,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         requireNonNull(function.apply(key, oldValue));
     for (K key : keySet()) {
       long[] now = { expirationTicker().read() };
-      Object lookupKey = nodeFactory.newLookupKey(key);
+      Object lookupKey = lookupKey(key);
       remap(key, lookupKey, remappingFunction, expiry(), now, /* computeIfAbsent */ false);
     }
   }
@@ -2647,10 +3186,19 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       boolean recordStats, boolean recordLoad) {
     requireNonNull(key);
     requireNonNull(mappingFunction);
+    var near = nearCache;
+    NearCache.Table<K, V> table = null;
+    if (near != null) {
+      table = near.table();
+      V value = near.getIfPresent(table, key, recordStats);
+      if (value != null) {
+        return value;
+      }
+    }
     long now = expirationTicker().read();
 
     // An optimistic fast path to avoid unnecessary locking
-    Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
+    Node<K, V> node = getNode(key);
     if (node != null) {
       V value = node.getValue();
       if ((value != null) && !hasExpired(node, now)) {
@@ -2659,6 +3207,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
           setAccessTime(node, now);
         }
         var refreshed = afterRead(node, now, /* recordHit */ recordStats);
+        if ((near != null) && (table != null)) {
+          near.offer(table, key, node);
+        }
         return (refreshed == null) ? value : refreshed;
       }
     }
@@ -2681,7 +3232,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     @SuppressWarnings({"rawtypes", "unchecked"})
     Node<K, V>[] removed = new Node[1];
 
-    int[] weight = new int[2]; // old, new
+    long[] weight = new long[2]; // old, new
     RemovalCause[] cause = new RemovalCause[1];
     Node<K, V> node = data.compute(keyRef, (k, n) -> {
       if (n == null) {
@@ -2690,7 +3241,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
           return null;
         }
         now[0] = expirationTicker().read();
-        weight[1] = weigher.weigh(key, newValue[0]);
+        weight[1] = weigher.weighLong(key, newValue[0]);
         n = nodeFactory.newNode(key, keyReferenceQueue(),
             newValue[0], valueReferenceQueue(), weight[1], now[0]);
         setVariableTime(n, expireAfterCreate(key, newValue[0], expiry(), now[0]));
@@ -2720,7 +3271,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
           return null;
         }
         now[0] = expirationTicker().read();
-        weight[1] = weigher.weigh(key, newValue[0]);
+        weight[1] = weigher.weighLong(key, newValue[0]);
         long varTime = expireAfterCreate(key, newValue[0], expiry(), now[0]);
 
         n.setValue(newValue[0], valueReferenceQueue());
@@ -2758,9 +3309,10 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     if ((oldValue[0] == null) && (cause[0] == null)) {
       afterWrite(new AddTask(node, weight[1]));
     } else {
-      int weightedDifference = (weight[1] - weight[0]);
+      long weightedDifference = (weight[1] - weight[0]);
       afterWrite(new UpdateTask(node, weightedDifference));
     }
+    discardNegative(key);
 
     return newValue[0];
   }
@@ -2772,7 +3324,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     requireNonNull(remappingFunction);
 
     // An optimistic fast path to avoid unnecessary locking
-    Object lookupKey = nodeFactory.newLookupKey(key);
+    Object lookupKey = lookupKey(key);
     @Nullable Node<K, V> node = data.get(lookupKey);
     long now;
     if (node == null) {
@@ -2847,7 +3399,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     @SuppressWarnings({"rawtypes", "unchecked"})
     Node<K, V>[] removed = new Node[1];
 
-    int[] weight = new int[2]; // old, new
+    long[] weight = new long[2]; // old, new
     RemovalCause[] cause = new RemovalCause[1];
 
     Node<K, V> node = data.compute(keyRef, (kr, n) -> {
@@ -2860,7 +3412,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
           return null;
         }
         now[0] = expirationTicker().read();
-        weight[1] = weigher.weigh(key, newValue[0]);
+        weight[1] = weigher.weighLong(key, newValue[0]);
         long varTime = expireAfterCreate(key, newValue[0], expiry, now[0]);
         n = nodeFactory.newNode(keyRef, newValue[0], valueReferenceQueue(), weight[1], now[0]);
         setVariableTime(n, varTime);
@@ -2902,7 +3454,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
         long varTime;
         weight[0] = n.getWeight();
-        weight[1] = weigher.weigh(key, newValue[0]);
+        weight[1] = weigher.weighLong(key, newValue[0]);
         now[0] = expirationTicker().read();
         if (cause[0] == null) {
           if (newValue[0] != oldValue[0]) {
@@ -2942,7 +3494,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     } else if ((oldValue[0] == null) && (cause[0] == null)) {
       afterWrite(new AddTask(node, weight[1]));
     } else {
-      int weightedDifference = weight[1] - weight[0];
+      long weightedDifference = weight[1] - weight[0];
       if (expiresAfterWrite() || (weightedDifference != 0)) {
         afterWrite(new UpdateTask(node, weightedDifference));
       } else {
@@ -2952,6 +3504,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         }
       }
     }
+    if (newValue[0] != null) {
+      discardNegative(key);
+    }
 
     return newValue[0];
   }
@@ -3085,31 +3640,39 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
    * @param mappingFunction the mapping function to compute a value
    * @return the computed value
    */
-  @SuppressWarnings("GuardedByChecker")
   <T> T evictionOrder(boolean hottest, Function<V, V> transformer,
       Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+    return snapshot(evictionOrder(hottest), transformer, mappingFunction);
+  }
+
+  /**
+   * Returns the nodes in the order that the eviction policy retains them. The iterator must be
+   * obtained and traversed while holding the eviction lock.
+   *
+   * @param hottest the coldest or hottest iteration order
+   * @return the supplier of the entries in the cache
+   */
+  @SuppressWarnings("GuardedByChecker")
+  Iterable<Node<K, V>> evictionOrder(boolean hottest) {
     Comparator<Node<K, V>> comparator = Comparator.comparingInt(node -> {
       K key = node.getKey();
       return (key == null) ? 0 : frequencySketch().frequency(key);
     });
-    Iterable<Node<K, V>> iterable;
     if (hottest) {
-      iterable = () -> {
+      return () -> {
         var secondary = PeekingIterator.comparing(
             accessOrderProbationDeque().descendingIterator(),
             accessOrderWindowDeque().descendingIterator(), comparator);
         return PeekingIterator.concat(
             accessOrderProtectedDeque().descendingIterator(), secondary);
       };
-    } else {
-      iterable = () -> {
-        var primary = PeekingIterator.comparing(
-            accessOrderWindowDeque().iterator(), accessOrderProbationDeque().iterator(),
-            comparator.reversed());
-        return PeekingIterator.concat(primary, accessOrderProtectedDeque().iterator());
-      };
     }
-    return snapshot(iterable, transformer, mappingFunction);
+    return () -> {
+      var primary = PeekingIterator.comparing(
+          accessOrderWindowDeque().iterator(), accessOrderProbationDeque().iterator(),
+          comparator.reversed());
+      return PeekingIterator.concat(primary, accessOrderProtectedDeque().iterator());
+    };
   }
 
   /**
@@ -3205,7 +3768,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     long refreshableAt = refreshAfterWrite()
         ? node.getWriteTime() + refreshAfterWriteNanos()
         : now + Long.MAX_VALUE;
-    int weight = node.getPolicyWeight();
+    long weight = node.getPolicyWeight();
     return SnapshotEntry.forEntry(key, value, now, weight, now + expiresAfter, refreshableAt);
   }
 
@@ -3243,7 +3806,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     public Map<K, V> apply(Stream<CacheEntry<K, V>> stream) {
       var map = new LinkedHashMap<K, V>();
       stream.takeWhile(entry -> {
-        weightedSize = Math.addExact(weightedSize, entry.weight());
+        weightedSize = Math.addExact(weightedSize, entry.weightLong());
         return (weightedSize <= weightLimit);
       }).forEach(entry -> map.put(entry.getKey(), entry.getValue()));
       return Collections.unmodifiableMap(map);
@@ -3633,7 +4196,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       if ((key == null) || (value == null)) {
         return false;
       }
-      Node<K, V> node = cache.data.get(cache.nodeFactory.newLookupKey(key));
+      Node<K, V> node = cache.getNode(key);
       return (node != null) && node.containsValue(value);
     }
 
@@ -3922,6 +4485,24 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     }
     if (cache.refreshAfterWrite()) {
       proxy.refreshAfterWriteNanos = cache.refreshAfterWriteNanos();
+      proxy.earlyRefreshBeta = cache.earlyRefreshBeta;
+    }
+    if (cache.refreshCoalescer != null) {
+      proxy.refreshCoalesceMaximumBatchSize = cache.refreshCoalescer.maximumBatchSize;
+      proxy.refreshCoalesceMaximumDelayNanos = cache.refreshCoalescer.maximumDelayNanos;
+    }
+    if (cache.nearCache != null) {
+      proxy.nearCacheMaximumSize = cache.nearCache.maximumSize;
+    }
+    if (cache.heavyHitters != null) {
+      proxy.heavyHittersCapacity = cache.heavyHitters.heap.length;
+    }
+    if (cache.negatives != null) {
+      proxy.negativeMaximumSize = cache.negatives.maximumSize;
+      proxy.negativeExpireAfterWriteNanos = cache.negatives.expiresAfterNanos;
+      if (proxy.ticker == Ticker.disabledTicker()) {
+        proxy.ticker = cache.negatives.ticker;
+      }
     }
     if (cache.evicts()) {
       if (cache.isWeighted) {
@@ -3930,6 +4511,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       } else {
         proxy.maximumSize = cache.maximum();
       }
+      proxy.missCostAware = (cache.loadCosts != null);
     }
     proxy.cacheLoader = cache.cacheLoader;
     proxy.async = cache.isAsync;
@@ -3976,6 +4558,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
   @SuppressWarnings({"NullableOptional", "OptionalAssignedToNull"})
   static final class BoundedPolicy<K, V> implements Policy<K, V> {
+    final @Nullable CoalescedLoads coalescedLoads;
     final BoundedLocalCache<K, V> cache;
     final Function<V, V> transformer;
     final boolean isWeighted;
@@ -3987,6 +4570,11 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     @Nullable Optional<VarExpiration<K, V>> variable;
 
     BoundedPolicy(BoundedLocalCache<K, V> cache, Function<V, V> transformer, boolean isWeighted) {
+      this(cache, transformer, isWeighted, /* coalescedLoads */ null);
+    }
+    BoundedPolicy(BoundedLocalCache<K, V> cache, Function<V, V> transformer,
+        boolean isWeighted, @Nullable CoalescedLoads coalescedLoads) {
+      this.coalescedLoads = coalescedLoads;
       this.transformer = transformer;
       this.isWeighted = isWeighted;
       this.cache = cache;
@@ -3999,7 +4587,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       return transformer.apply(cache.getIfPresentQuietly(key));
     }
     @Override public @Nullable CacheEntry<K, V> getEntryIfPresentQuietly(K key) {
-      Node<K, V> node = cache.data.get(cache.nodeFactory.newLookupKey(key));
+      Node<K, V> node = cache.getNode(key);
       return (node == null) ? null : cache.nodeToCacheEntry(node, transformer);
     }
     @SuppressWarnings("Java9CollectionFactory")
@@ -4063,22 +4651,82 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
           ? (refreshes = Optional.of(new BoundedRefreshAfterWrite()))
           : refreshes;
     }
+    @Override public Optional<CoalescedLoads> coalescedLoads() {
+      return Optional.ofNullable(coalescedLoads);
+    }
+    @Override public Optional<NegativeCache<K>> negativeCache() {
+      return Optional.ofNullable(cache.negatives);
+    }
+    @Override public Map<K, Long> heavyHitters(int limit) {
+      requireArgument(limit >= 0);
+      var tracker = cache.heavyHitters;
+      if (tracker == null) {
+        throw new UnsupportedOperationException("The cache does not track heavy hitters");
+      }
+      cache.evictionLock.lock();
+      try {
+        cache.maintenance(/* ignored */ null);
+        return Collections.unmodifiableMap(tracker.snapshot(limit));
+      } finally {
+        cache.evictionLock.unlock();
+        cache.rescheduleCleanUpIfIncomplete();
+      }
+    }
+    @Override public Metrics metrics() {
+      var metrics = new PolicyMetrics();
+      metrics.readBufferDrops = cache.readBufferDrops.sum();
+      metrics.writeBufferCapacity = WRITE_BUFFER_MAX;
+
+      cache.evictionLock.lock();
+      try {
+        metrics.readBufferDrains = cache.readBuffer.reads();
+        metrics.readBufferOffers = cache.readBuffer.writes() + metrics.readBufferDrops;
+        metrics.writeBufferSize = cache.writeBuffer.size();
+        metrics.maintenanceCount = cache.maintenanceCount;
+        metrics.maintenanceTime = cache.maintenanceTime;
+        if (cache.evicts()) {
+          metrics.windowMaximum = cache.windowMaximum();
+          metrics.windowWeightedSize = cache.windowWeightedSize();
+          metrics.protectedMaximum = cache.mainProtectedMaximum();
+          metrics.protectedWeightedSize = cache.mainProtectedWeightedSize();
+          metrics.probationWeightedSize = Math.max(0, cache.weightedSize()
+              - cache.windowWeightedSize() - cache.mainProtectedWeightedSize());
+          metrics.adjustment = cache.adjustment();
+          metrics.stepSize = cache.stepSize();
+        }
+        if (cache.expiresVariable()) {
+          metrics.timerWheelOccupancy = cache.timerWheel().occupancy();
+        }
+      } finally {
+        cache.evictionLock.unlock();
+      }
+
+      var refreshes = cache.refreshes;
+      metrics.pendingRefreshes = (refreshes == null) ? 0 : refreshes.size();
+      return metrics;
+    }
 
     final class BoundedEviction implements Eviction<K, V> {
       @Override public boolean isWeighted() {
         return isWeighted;
       }
       @Override public OptionalInt weightOf(K key) {
+        OptionalLong weight = weightOfLong(key);
+        return weight.isPresent()
+            ? OptionalInt.of((int) Math.min(weight.getAsLong(), Integer.MAX_VALUE))
+            : OptionalInt.empty();
+      }
+      @Override public OptionalLong weightOfLong(K key) {
         requireNonNull(key);
         if (!isWeighted) {
-          return OptionalInt.empty();
+          return OptionalLong.empty();
         }
-        Node<K, V> node = cache.data.get(cache.nodeFactory.newLookupKey(key));
+        Node<K, V> node = cache.getNode(key);
         if ((node == null) || cache.hasExpired(node, cache.expirationTicker().read())) {
-          return OptionalInt.empty();
+          return OptionalLong.empty();
         }
         synchronized (node) {
-          return OptionalInt.of(node.getWeight());
+          return OptionalLong.of(node.getWeight());
         }
       }
       @Override public OptionalLong weightedSize() {
@@ -4150,6 +4798,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         requireNonNull(mappingFunction);
         return cache.evictionOrder(/* hottest */ true, transformer, mappingFunction);
       }
+      @Override public int writeSnapshot(Path path, int limit) throws IOException {
+        return CacheSnapshot.write(cache, transformer, path, limit);
+      }
+      @Override public int readSnapshot(Path path) throws IOException {
+        return CacheSnapshot.read(cache, path);
+      }
     }
 
     @SuppressWarnings("PreferJavaTimeOverload")
@@ -4157,7 +4811,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       @Override public OptionalLong ageOf(K key, TimeUnit unit) {
         requireNonNull(key);
         requireNonNull(unit);
-        Object lookupKey = cache.nodeFactory.newLookupKey(key);
+        Object lookupKey = cache.lookupKey(key);
         Node<K, V> node = cache.data.get(lookupKey);
         if (node == null) {
           return OptionalLong.empty();
@@ -4194,7 +4848,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       @Override public OptionalLong ageOf(K key, TimeUnit unit) {
         requireNonNull(key);
         requireNonNull(unit);
-        Object lookupKey = cache.nodeFactory.newLookupKey(key);
+        Object lookupKey = cache.lookupKey(key);
         Node<K, V> node = cache.data.get(lookupKey);
         if (node == null) {
           return OptionalLong.empty();
@@ -4234,7 +4888,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       @Override public OptionalLong getExpiresAfter(K key, TimeUnit unit) {
         requireNonNull(key);
         requireNonNull(unit);
-        Object lookupKey = cache.nodeFactory.newLookupKey(key);
+        Object lookupKey = cache.lookupKey(key);
         Node<K, V> node = cache.data.get(lookupKey);
         if (node == null) {
           return OptionalLong.empty();
@@ -4248,7 +4902,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         requireNonNull(key);
         requireNonNull(unit);
         requireArgument(duration >= 0);
-        Object lookupKey = cache.nodeFactory.newLookupKey(key);
+        Object lookupKey = cache.lookupKey(key);
         Node<K, V> node = cache.data.get(lookupKey);
         if (node != null) {
           long now;
@@ -4418,7 +5072,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
       @Override public OptionalLong ageOf(K key, TimeUnit unit) {
         requireNonNull(key);
         requireNonNull(unit);
-        Object lookupKey = cache.nodeFactory.newLookupKey(key);
+        Object lookupKey = cache.lookupKey(key);
         Node<K, V> node = cache.data.get(lookupKey);
         if (node == null) {
           return OptionalLong.empty();
@@ -4552,7 +5206,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
 
     @SuppressWarnings("unchecked")
     BoundedLocalAsyncLoadingCache(Caffeine<K, V> builder, AsyncCacheLoader<? super K, V> loader) {
-      super(loader);
+      super(builder, loader);
       isWeighted = builder.isWeighted();
       cache = (BoundedLocalCache<K, CompletableFuture<V>>) LocalCacheFactory
           .newBoundedLocalCache(builder, loader, /* async */ true);
@@ -4576,7 +5230,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
         Function<CompletableFuture<V>, V> transformer = Async::getIfReady;
         @SuppressWarnings("unchecked")
         Function<V, V> castTransformer = (Function<V, V>) transformer;
-        policy = new BoundedPolicy<>(castCache, castTransformer, isWeighted);
+        policy = new BoundedPolicy<>(castCache, castTransformer, isWeighted, coalescer);
       }
       return policy;
     }
@@ -4587,7 +5241,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef
     }
 
     private Object writeReplace() {
-      return makeSerializationProxy(cache);
+      SerializationProxy<K, V> proxy = makeSerializationProxy(cache);
+      if (coalescer != null) {
+        proxy.coalesceMaximumBatchSize = coalescer.maximumBatchSize;
+        proxy.coalesceMaximumDelayNanos = coalescer.maximumDelayNanos;
+      }
+      return proxy;
     }
   }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.github.benmanes.caffeine.cache.Policy.NegativeCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * The keys that a cache remembers as absent because its loader did not find a value for them. The
+ * keys are held in a small cache of their own, so that they are bounded and expire independently
+ * of the entries and do not compete with them for capacity.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class BoundedNegativeCache<K> implements NegativeCache<K> {
+
+  /*
+   * A lookup first consults the cache's entries, so that a hit does not pay for a second lookup or
+   * record a miss in the absent keys' statistics, and only a miss continues to the absent keys
+   * before loading. When the load returns null then the key is recorded as absent, and a write to
+   * or invalidation of the key in the cache removes it afterwards. A write may race with a load
+   * that is recording the key's absence, so after the key is recorded the cache is checked again
+   * and the record is discarded if a value is now present. As the write forgets the absence after
+   * its value was stored, either the write or the load observes the other and the key is not left
+   * as absent.
+   */
+
+  final Cache<Object, Boolean> absent;
+  final long expiresAfterNanos;
+  final long maximumSize;
+  final Ticker ticker;
+
+  BoundedNegativeCache(Caffeine<?, ?> builder) {
+    this.maximumSize = builder.negativeMaximumSize;
+    this.expiresAfterNanos = builder.negativeExpireAfterWriteNanos;
+    this.ticker = (builder.ticker == null) ? Ticker.systemTicker() : builder.ticker;
+
+    var absentBuilder = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofNanos(expiresAfterNanos))
+        .executor(builder.getExecutor())
+        .maximumSize(maximumSize)
+        .ticker(ticker);
+    if (!builder.isStrongKeys()) {
+      absentBuilder.weakKeys();
+    }
+    if (builder.isRecordingStats()) {
+      absentBuilder.recordStats();
+    }
+    absent = absentBuilder.build();
+  }
+
+  /**
+   * Returns the value associated with the key in the cache, obtaining it from the mapping function
+   * if necessary, or null if the key is remembered as absent.
+   *
+   * @param cache the cache holding the entries
+   * @param key the key with which the specified value is to be associated
+   * @param mappingFunction the function to compute a value
+   * @return the current (existing or computed) value, or null if the key is absent
+   */
+  <V> @Nullable V computeIfAbsent(LocalCache<K, V> cache,
+      K key, Function<? super K, ? extends V> mappingFunction) {
+    V present = cache.getIfPresent(key, /* recordStats */ false);
+    if (present != null) {
+      cache.statsCounter().recordHits(1);
+      return present;
+    } else if (absent.getIfPresent(key) != null) {
+      return null;
+    }
+    V value = cache.computeIfAbsent(key, mappingFunction);
+    if (value == null) {
+      absent.put(key, Boolean.TRUE);
+      if (cache.getIfPresentQuietly(key) != null) {
+        absent.invalidate(key);
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public long maximumSize() {
+    return maximumSize;
+  }
+
+  @Override
+  public Duration expiresAfter() {
+    return Duration.ofNanos(expiresAfterNanos);
+  }
+
+  @Override
+  public long estimatedSize() {
+    return absent.estimatedSize();
+  }
+
+  @Override
+  public boolean contains(K key) {
+    return absent.policy().getIfPresentQuietly(requireNonNull(key)) != null;
+  }
+
+  @Override
+  public void invalidate(K key) {
+    absent.invalidate(key);
+  }
+
+  @Override
+  public void invalidateAll() {
+    absent.invalidateAll();
+  }
+
+  @Override
+  public CacheStats stats() {
+    return absent.stats();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{maximumSize=" + maximumSize
+        + ", expiresAfter=" + expiresAfterNanos + "ns, estimatedSize=" + estimatedSize() + '}';
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JDK Flight Recorder events that are emitted by the cache. An event is only allocated and
+ * timed while a recording has it enabled, so the instrumentation is practically free otherwise.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class CacheEvents {
+
+  /*
+   * The jdk.jfr module is an optional dependency, as it may be excluded from a custom runtime image
+   * or not be resolved in a modular application. The event classes are only loaded after the module
+   * was found to be present, so the callers pass the events around as opaque objects and guard
+   * their use by checking for null.
+   *
+   * When a recording is not active, the event classes are not instrumented and isEnabled() returns
+   * a constant false. The JIT compiler then eliminates the allocation through escape analysis,
+   * leaving only the check of the static final flag.
+   */
+
+  static final String CATEGORY = "Caffeine";
+  static final boolean AVAILABLE = isAvailable();
+
+  private CacheEvents() {}
+
+  /** Returns if the flight recorder's event api can be used. */
+  static boolean isAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event", /* initialize */ false, CacheEvents.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  /** Returns a started maintenance event if it is being recorded, else null. */
+  static @Nullable Object beginMaintenance() {
+    if (!AVAILABLE) {
+      return null;
+    }
+    var event = new MaintenanceEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  /** Records the work performed by the maintenance run. */
+  static void commitMaintenance(Object maintenanceEvent,
+      int writesDrained, long evicted, long expired, long weightedSize) {
+    var event = (MaintenanceEvent) maintenanceEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.writesDrained = writesDrained;
+      event.weightedSize = weightedSize;
+      event.evicted = evicted;
+      event.expired = expired;
+      event.commit();
+    }
+  }
+
+  /** Returns a started eviction lock wait event if it is being recorded, else null. */
+  static @Nullable Object beginLockWait() {
+    if (!AVAILABLE) {
+      return null;
+    }
+    var event = new LockWaitEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  /** Records the time spent waiting to acquire the eviction lock. */
+  static void commitLockWait(Object lockWaitEvent) {
+    var event = (LockWaitEvent) lockWaitEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.commit();
+    }
+  }
+
+  /** Returns a started write buffer saturation event if it is being recorded, else null. */
+  static @Nullable Object beginWriteBufferFull(int retries, int pending) {
+    if (!AVAILABLE) {
+      return null;
+    }
+    var event = new WriteBufferFullEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    event.retries = retries;
+    event.pending = pending;
+    return event;
+  }
+
+  /** Records that the writer performed the maintenance work because the write buffer was full. */
+  static void commitWriteBufferFull(Object writeBufferFullEvent) {
+    var event = (WriteBufferFullEvent) writeBufferFullEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.commit();
+    }
+  }
+
+  /** Records that the hill climber resized the admission window. */
+  static void windowAdjustment(long requested, long windowMaximum,
+      long mainProtectedMaximum, double stepSize, double hitRate) {
+    if (!AVAILABLE) {
+      return;
+    }
+    var event = new WindowAdjustmentEvent();
+    if (event.shouldCommit()) {
+      event.mainProtectedMaximum = mainProtectedMaximum;
+      event.windowMaximum = windowMaximum;
+      event.requested = requested;
+      event.stepSize = stepSize;
+      event.hitRate = hitRate;
+      event.commit();
+    }
+  }
+
+  /** Returns a started load event if it is being recorded, else null. */
+  static @Nullable Object beginLoad(boolean refresh) {
+    if (!AVAILABLE) {
+      return null;
+    }
+    var event = new LoadEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.refresh = refresh;
+    event.begin();
+    return event;
+  }
+
+  /** Records the duration and outcome of the load. */
+  static void commitLoad(Object loadEvent, boolean success) {
+    var event = (LoadEvent) loadEvent;
+    event.end();
+    if (event.shouldCommit()) {
+      event.success = success;
+      event.commit();
+    }
+  }
+
+  /** Decorates the mapping function to record a load event if enabled. */
+  static <T, R> Function<? super T, ? extends R> recordLoads(
+      Function<? super T, ? extends R> mappingFunction) {
+    if (!AVAILABLE || !new LoadEvent().isEnabled()) {
+      return mappingFunction;
+    }
+    return key -> {
+      var event = beginLoad(/* refresh */ false);
+      boolean success = false;
+      try {
+        R value = mappingFunction.apply(key);
+        success = (value != null);
+        return value;
+      } finally {
+        if (event != null) {
+          commitLoad(event, success);
+        }
+      }
+    };
+  }
+
+  @Category(CATEGORY)
+  @Label("Cache Maintenance")
+  @Name("com.github.benmanes.caffeine.Maintenance")
+  @Description("The pending work was applied to the eviction policy")
+  @StackTrace(false)
+  static final class MaintenanceEvent extends Event {
+    @Label("Writes Drained")
+    @Description("The number of write operations replayed from the write buffer")
+    int writesDrained;
+
+    @Label("Evicted")
+    @Description("The number of entries removed due to the size bound or garbage collection")
+    long evicted;
+
+    @Label("Expired")
+    @Description("The number of entries removed due to an expiration policy")
+    long expired;
+
+    @Label("Weighted Size")
+    @Description("The weighted size of the cache after the maintenance completed")
+    long weightedSize;
+  }
+
+  @Category(CATEGORY)
+  @Label("Eviction Lock Wait")
+  @Name("com.github.benmanes.caffeine.EvictionLockWait")
+  @Description("A thread waited to acquire the contended eviction lock")
+  static final class LockWaitEvent extends Event {}
+
+  @Category(CATEGORY)
+  @Label("Write Buffer Full")
+  @Name("com.github.benmanes.caffeine.WriteBufferFull")
+  @Description("A writer could not append to the write buffer and performed the maintenance")
+  static final class WriteBufferFullEvent extends Event {
+    @Label("Retries")
+    @Description("The number of attempts to append to the write buffer")
+    int retries;
+
+    @Label("Pending")
+    @Description("The number of operations in the write buffer when the writer gave up")
+    int pending;
+  }
+
+  @Category(CATEGORY)
+  @Label("Window Adjustment")
+  @Name("com.github.benmanes.caffeine.WindowAdjustment")
+  @Description("The hill climber resized the admission window")
+  @StackTrace(false)
+  static final class WindowAdjustmentEvent extends Event {
+    @Label("Requested")
+    @Description("The requested change to the window's maximum weighted size")
+    long requested;
+
+    @Label("Window Maximum")
+    @Description("The maximum weighted size of the window after the adjustment")
+    long windowMaximum;
+
+    @Label("Protected Maximum")
+    @Description("The maximum weighted size of the main protected region after the adjustment")
+    long mainProtectedMaximum;
+
+    @Label("Step Size")
+    @Description("The size of the next adjustment if the hit rate continues to improve")
+    double stepSize;
+
+    @Percentage
+    @Label("Hit Rate")
+    @Description("The hit rate of the sample that triggered the adjustment")
+    double hitRate;
+  }
+
+  @Category(CATEGORY)
+  @Label("Cache Load")
+  @Name("com.github.benmanes.caffeine.Load")
+  @Description("A value was computed or reloaded by the cache")
+  static final class LoadEvent extends Event {
+    @Label("Refresh")
+    @Description("If the load reloaded a present entry")
+    boolean refresh;
+
+    @Label("Success")
+    @Description("If the load produced a value")
+    boolean success;
+  }
+}
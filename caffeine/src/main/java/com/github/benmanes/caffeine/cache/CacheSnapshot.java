@@ -0,0 +1,379 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.requireArgument;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.github.benmanes.caffeine.cache.Async.AsyncExpiry;
+import com.github.benmanes.caffeine.cache.BoundedLocalCache.BoundedPolicy.FixedExpireAfterWrite;
+
+/**
+ * A binary snapshot of a bounded cache's hottest entries and frequency history, which is used to
+ * warm a new cache instance after a restart. The file starts with a header and the raw counters of
+ * the {@link FrequencySketch}, followed by a stream of serialized entries in hottest-first order.
+ * Each entry records its age and remaining lifetime rather than the absolute timestamps, as the
+ * ticker's origin is not shared across instances.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class CacheSnapshot {
+  static final int MAGIC = 0xCAFE5EED;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 5 * Integer.BYTES;
+  static final int BUFFER_SIZE = 8 * 1024;
+
+  private CacheSnapshot() {}
+
+  /**
+   * Writes the hottest entries and the frequency history to the file.
+   *
+   * @param cache the cache to capture
+   * @param transformer a function that unwraps the value
+   * @param path the file to write to
+   * @param limit the maximum number of entries
+   * @return the number of entries written
+   * @throws IOException if an I/O error occurs
+   */
+  static <K, V> int write(BoundedLocalCache<K, V> cache, Function<V, V> transformer,
+      Path path, int limit) throws IOException {
+    requireArgument(limit >= 0);
+    requireNonNull(path);
+
+    Sketch sketch;
+    var entries = new ArrayList<Entry<K, V>>(Math.min(limit, cache.size()));
+    cache.evictionLock.lock();
+    try {
+      cache.maintenance(/* ignored */ null);
+      sketch = Sketch.capture(cache.frequencySketch());
+
+      long now = cache.expirationTicker().read();
+      for (Node<K, V> node : cache.evictionOrder(/* hottest */ true)) {
+        if (entries.size() >= limit) {
+          break;
+        }
+        var entry = Entry.capture(cache, node, transformer, now);
+        if (entry != null) {
+          entries.add(entry);
+        }
+      }
+    } finally {
+      cache.evictionLock.unlock();
+      cache.rescheduleCleanUpIfIncomplete();
+    }
+
+    try (var channel = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      sketch.writeTo(channel);
+      try (var output = new ObjectOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE))) {
+        output.writeInt(entries.size());
+        for (var entry : entries) {
+          entry.writeTo(output);
+        }
+      }
+    }
+    return entries.size();
+  }
+
+  /**
+   * Restores the frequency history and the entries from the file.
+   *
+   * @param cache the cache to populate
+   * @param path the file to read from
+   * @return the number of entries restored
+   * @throws IOException if an I/O error occurs or the file is not a valid snapshot
+   */
+  static <K, V> int read(BoundedLocalCache<K, V> cache, Path path) throws IOException {
+    requireNonNull(path);
+
+    Sketch sketch;
+    List<Entry<K, V>> entries;
+    try (var channel = FileChannel.open(path, READ)) {
+      long fileSize = channel.size();
+      if (fileSize > Integer.MAX_VALUE) {
+        throw new IOException("The cache snapshot is too large to map: " + path);
+      }
+      var buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+      sketch = Sketch.readFrom(buffer, path);
+      try (var input = new ObjectInputStream(new ByteBufferInputStream(buffer))) {
+        int count = input.readInt();
+        if (count < 0) {
+          throw new IOException("Invalid cache snapshot: " + path);
+        }
+        entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+          entries.add(Entry.readFrom(input));
+        }
+      } catch (ClassNotFoundException | ClassCastException e) {
+        throw new IOException("Invalid cache snapshot: " + path, e);
+      }
+    } catch (BufferUnderflowException e) {
+      throw new IOException("Truncated cache snapshot: " + path, e);
+    }
+
+    // The history is restored before the entries so that it informs the admission decisions, and
+    // again afterwards to discard the increments that were recorded when reinserting the entries
+    sketch.restoreTo(cache, /* drain */ false);
+    int restored = restore(cache, entries);
+    sketch.restoreTo(cache, /* drain */ true);
+    return restored;
+  }
+
+  /** Inserts the entries in the order that best preserves the policy's retention order. */
+  static <K, V> int restore(BoundedLocalCache<K, V> cache, List<Entry<K, V>> entries) {
+    if (cache.expiresAfterWrite()) {
+      entries.sort(Comparator.comparingLong((Entry<K, V> entry) -> entry.writeAge).reversed());
+    } else if (cache.expiresAfterAccess()) {
+      entries.sort(Comparator.comparingLong((Entry<K, V> entry) -> entry.accessAge).reversed());
+    } else {
+      // Insert from the coldest to the hottest so that the hottest are the most recently used
+      Collections.reverse(entries);
+    }
+
+    int restored = 0;
+    long now = cache.expirationTicker().read();
+    for (var entry : entries) {
+      if (entry.restoreTo(cache, now)) {
+        restored++;
+      }
+    }
+    return restored;
+  }
+
+  /** The captured state of the frequency sketch. */
+  static final class Sketch {
+    final long[] counters;
+    final int sampleSize;
+    final int size;
+
+    Sketch(long[] counters, int sampleSize, int size) {
+      this.counters = counters;
+      this.sampleSize = sampleSize;
+      this.size = size;
+    }
+
+    static Sketch capture(FrequencySketch<?> sketch) {
+      return sketch.isNotInitialized()
+          ? new Sketch(new long[0], 0, 0)
+          : new Sketch(sketch.table.clone(), sketch.sampleSize, sketch.size);
+    }
+
+    /**
+     * Sizes the cache's sketch for its maximum and replaces its counts, optionally after first
+     * applying the pending writes to the policy.
+     */
+    void restoreTo(BoundedLocalCache<?, ?> cache, boolean drain) {
+      if (counters.length == 0) {
+        return;
+      }
+      cache.evictionLock.lock();
+      try {
+        if (drain) {
+          cache.maintenance(/* ignored */ null);
+        }
+        long capacity = cache.isWeighted()
+            ? Math.max(cache.data.mappingCount(), counters.length)
+            : cache.maximum();
+        cache.frequencySketch().ensureCapacity(capacity);
+        cache.frequencySketch().restore(counters, sampleSize, size);
+      } finally {
+        cache.evictionLock.unlock();
+        if (drain) {
+          cache.rescheduleCleanUpIfIncomplete();
+        }
+      }
+    }
+
+    void writeTo(FileChannel channel) throws IOException {
+      var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(sampleSize).putInt(size).putInt(counters.length);
+      for (long counter : counters) {
+        if (buffer.remaining() < Long.BYTES) {
+          writeFully(channel, buffer);
+        }
+        buffer.putLong(counter);
+      }
+      writeFully(channel, buffer);
+    }
+
+    static Sketch readFrom(ByteBuffer buffer, Path path) throws IOException {
+      if ((buffer.remaining() < HEADER_BYTES)
+          || (buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION)) {
+        throw new IOException("Not a cache snapshot: " + path);
+      }
+      int sampleSize = buffer.getInt();
+      int size = buffer.getInt();
+      int length = buffer.getInt();
+      boolean valid = (length == 0) || ((length >= 8) && (Integer.bitCount(length) == 1)
+          && (sampleSize > 0) && (size >= 0) && (size < sampleSize));
+      if (!valid) {
+        throw new IOException("Invalid cache snapshot: " + path);
+      }
+      var counters = new long[length];
+      buffer.asLongBuffer().get(counters);
+      buffer.position(buffer.position() + (length * Long.BYTES));
+      return new Sketch(counters, sampleSize, size);
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  /** The captured state of a cache entry, where the times are relative to the snapshot. */
+  static final class Entry<K, V> {
+    final K key;
+    final V value;
+    final long writeAge;
+    final long accessAge;
+    final long expiresAfter;
+
+    Entry(K key, V value, long writeAge, long accessAge, long expiresAfter) {
+      this.expiresAfter = expiresAfter;
+      this.accessAge = accessAge;
+      this.writeAge = writeAge;
+      this.value = value;
+      this.key = key;
+    }
+
+    static <K, V> @Nullable Entry<K, V> capture(BoundedLocalCache<K, V> cache,
+        Node<K, V> node, Function<V, V> transformer, long now) {
+      K key = node.getKey();
+      V value = transformer.apply(node.getValue());
+      if ((key == null) || (value == null) || !node.isAlive() || cache.hasExpired(node, now)) {
+        return null;
+      }
+      long writeAge = (cache.expiresAfterWrite() || cache.refreshAfterWrite())
+          ? (now & ~1L) - (node.getWriteTime() & ~1L)
+          : 0L;
+      long accessAge = cache.expiresAfterAccess() ? (now - node.getAccessTime()) : 0L;
+      long expiresAfter = cache.expiresVariable()
+          ? (node.getVariableTime() - now)
+          : Long.MAX_VALUE;
+      return new Entry<>(key, value, writeAge, accessAge, expiresAfter);
+    }
+
+    /** Returns if the entry was inserted into the cache. */
+    @SuppressWarnings("unchecked")
+    boolean restoreTo(BoundedLocalCache<K, V> cache, long now) {
+      if ((cache.expiresAfterWrite() && (writeAge >= cache.expiresAfterWriteNanos()))
+          || (cache.expiresAfterAccess() && (accessAge >= cache.expiresAfterAccessNanos()))
+          || (cache.expiresVariable() && (expiresAfter <= 0))) {
+        return false;
+      }
+
+      Expiry<K, V> expiry = cache.expiry();
+      if (cache.expiresVariable()) {
+        var fixed = new FixedExpireAfterWrite<K, V>(expiresAfter, TimeUnit.NANOSECONDS);
+        expiry = cache.isAsync ? (Expiry<K, V>) new AsyncExpiry<>(fixed) : fixed;
+      }
+      V restored = cache.isAsync ? (V) CompletableFuture.completedFuture(value) : value;
+      if (cache.put(key, restored, expiry, /* onlyIfAbsent */ true) != null) {
+        return false;
+      }
+
+      Node<K, V> node = cache.getNode(key);
+      if (node != null) {
+        synchronized (node) {
+          if (node.getValue() == restored) {
+            cache.setWriteTime(node, now - writeAge);
+            cache.setAccessTime(node, now - accessAge);
+          }
+        }
+      }
+      return true;
+    }
+
+    void writeTo(ObjectOutputStream output) throws IOException {
+      output.writeObject(key);
+      output.writeObject(value);
+      output.writeLong(writeAge);
+      output.writeLong(accessAge);
+      output.writeLong(expiresAfter);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> Entry<K, V> readFrom(ObjectInputStream input)
+        throws IOException, ClassNotFoundException {
+      var key = (K) input.readObject();
+      var value = (V) input.readObject();
+      long writeAge = input.readLong();
+      long accessAge = input.readLong();
+      long expiresAfter = input.readLong();
+      return new Entry<>(key, value, writeAge, accessAge, expiresAfter);
+    }
+  }
+
+  /** An input stream that reads from the remaining content of a buffer. */
+  static final class ByteBufferInputStream extends InputStream {
+    final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      } else if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -150,8 +150,10 @@ public final class Caffeine<K, V> {
   static final int DEFAULT_INITIAL_CAPACITY = 16;
   static final int DEFAULT_EXPIRATION_NANOS = 0;
   static final int DEFAULT_REFRESH_NANOS = 0;
+  static final int MAXIMUM_NEAR_CACHE_SIZE = 1024;
 
   boolean strictParsing = true;
+  boolean missCostAware;
   boolean interner;
 
   long maximumSize = UNSET_INT;
@@ -161,6 +163,16 @@ public final class Caffeine<K, V> {
   long expireAfterWriteNanos = UNSET_INT;
   long expireAfterAccessNanos = UNSET_INT;
   long refreshAfterWriteNanos = UNSET_INT;
+  long staleWhileRevalidateNanos = UNSET_INT;
+  double earlyRefreshBeta = UNSET_INT;
+  long coalesceMaximumDelayNanos = UNSET_INT;
+  int coalesceMaximumBatchSize = UNSET_INT;
+  long refreshCoalesceMaximumDelayNanos = UNSET_INT;
+  int refreshCoalesceMaximumBatchSize = UNSET_INT;
+  long negativeMaximumSize = UNSET_INT;
+  long negativeExpireAfterWriteNanos = UNSET_INT;
+  int nearCacheMaximumSize = UNSET_INT;
+  int heavyHittersCapacity = UNSET_INT;
 
   @Nullable RemovalListener<? super K, ? super V> evictionListener;
   @Nullable RemovalListener<? super K, ? super V> removalListener;
@@ -323,6 +335,12 @@ public final class Caffeine<K, V> {
    * <p>
    * Beware that configuring a cache with an executor that discards tasks or never runs them may
    * experience non-deterministic behavior.
+   * <p>
+   * An executor that creates a virtual thread per task may be used to perform the loads of an
+   * {@link AsyncLoadingCache}, such as when the loader blocks on high-latency I/O. The cache's
+   * maintenance acquires only a {@link java.util.concurrent.locks.ReentrantLock} and briefly
+   * synchronizes on an entry to update its metadata, so it does not block while pinning the
+   * carrier thread unless an eviction listener does so.
    *
    * @param executor the executor to use for asynchronous execution
    * @return this {@code Caffeine} instance (for chaining)
@@ -440,6 +458,42 @@ public final class Caffeine<K, V> {
     return this;
   }
 
+  /**
+   * Specifies the maximum number of bytes of heap memory that the entries may retain. The size of
+   * an entry is estimated when it is inserted into or updated in the cache as the memory retained
+   * by its key and value, including the objects reachable from them, plus the cache's own
+   * per-entry overhead. The estimate is computed using a model of the JVM's object layout that is
+   * cached per class, and is thus effectively static during the lifetime of a cache entry.
+   * <p>
+   * The estimate is an approximation and is not a substitute for measuring the application's heap
+   * usage. An object that is shared by multiple entries is counted by each of them, a collection or
+   * map is not iterated and its elements are extrapolated from a sample or assumed to be minimal
+   * objects, the object graph is only traversed through classes whose packages are open to this
+   * library, and the traversal stops after visiting a small number of objects. As a result, the
+   * estimate is usually a lower bound of the memory that a large or deeply nested entry retains,
+   * so the heap usage may exceed this maximum. When the values have a known size, such as byte
+   * arrays, then specifying an exact {@link #weigher} is both cheaper and more precise.
+   * <p>
+   * Note that the cache <b>may evict an entry before this limit is exceeded or temporarily exceed
+   * the threshold while evicting</b>. As the cache size grows close to the maximum, the cache
+   * evicts entries that are less likely to be used again.
+   * <p>
+   * This feature cannot be used in conjunction with {@link #maximumSize}, {@link #maximumWeight},
+   * or {@link #weigher}.
+   *
+   * @param maximumBytes the maximum number of bytes that the entries may retain
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code maximumBytes} is negative
+   * @throws IllegalStateException if a maximum size, weight, or weigher was already set
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> maximumRetainedMemory(@NonNegative long maximumBytes) {
+    requireState(this.weigher == null, "weigher was already set to %s", this.weigher);
+    maximumWeight(maximumBytes);
+    this.weigher = new RetainedMemoryWeigher(/* entryOverhead */ 0L);
+    return this;
+  }
+
   /**
    * Specifies the weigher to use in determining the weight of entries. Entry weight is taken into
    * consideration by {@link #maximumWeight(long)} when determining which entries to evict, and use
@@ -498,9 +552,14 @@ public final class Caffeine<K, V> {
 
   @SuppressWarnings({"JavaAnnotator", "unchecked"})
   <K1 extends K, V1 extends V> Weigher<K1, V1> getWeigher(boolean isAsync) {
-    Weigher<K1, V1> delegate = (weigher == null) || (weigher == Weigher.singletonWeigher())
+    Weigher<?, ?> configured = weigher;
+    if (configured instanceof RetainedMemoryWeigher) {
+      var nodeFactory = NodeFactory.newFactory(this, isAsync);
+      configured = ((RetainedMemoryWeigher) configured).withEntryOverhead(nodeFactory, isAsync);
+    }
+    Weigher<K1, V1> delegate = (configured == null) || (configured == Weigher.singletonWeigher())
         ? Weigher.singletonWeigher()
-        : Weigher.boundedWeigher((Weigher<K1, V1>) weigher);
+        : Weigher.boundedWeigher((Weigher<K1, V1>) configured);
     return isAsync ? (Weigher<K1, V1>) new AsyncWeigher<>(delegate) : delegate;
   }
 
@@ -648,7 +707,12 @@ public final class Caffeine<K, V> {
   }
 
   long getExpiresAfterWriteNanos() {
-    return expiresAfterWrite() ? expireAfterWriteNanos : DEFAULT_EXPIRATION_NANOS;
+    if (!expiresAfterWrite()) {
+      return DEFAULT_EXPIRATION_NANOS;
+    } else if (servesStale()) {
+      return saturatedAdd(expireAfterWriteNanos, staleWhileRevalidateNanos);
+    }
+    return expireAfterWriteNanos;
   }
 
   boolean expiresAfterWrite() {
@@ -826,17 +890,296 @@ public final class Caffeine<K, V> {
     requireNonNull(unit);
     requireState(refreshAfterWriteNanos == UNSET_INT,
         "refreshAfterWriteNanos was already set to %s ns", refreshAfterWriteNanos);
+    requireState(staleWhileRevalidateNanos == UNSET_INT,
+        "refreshAfterWrite may not be used with staleWhileRevalidate");
     requireArgument(duration > 0, "duration must be positive: %s %s", duration, unit);
     this.refreshAfterWriteNanos = unit.toNanos(duration);
     return this;
   }
 
   long getRefreshAfterWriteNanos() {
+    if (servesStale()) {
+      return expireAfterWriteNanos;
+    }
     return refreshAfterWrite() ? refreshAfterWriteNanos : DEFAULT_REFRESH_NANOS;
   }
 
   boolean refreshAfterWrite() {
-    return refreshAfterWriteNanos != UNSET_INT;
+    return (refreshAfterWriteNanos != UNSET_INT) || servesStale();
+  }
+
+  /**
+   * Specifies that an entry which has outlived its {@link #expireAfterWrite} duration may continue
+   * to be served for up to the given grace period while it is reloaded in the background. The first
+   * read of a stale entry triggers an asynchronous reload, as described by
+   * {@link #refreshAfterWrite}, and the stale value is returned immediately rather than having the
+   * caller wait for the new value. Only one reload of an entry is in-flight at a time and, if it
+   * fails, the stale value continues to be served and a later read retries the reload. Once the
+   * grace period has also elapsed then the entry is removed and the next read waits for it to be
+   * loaded.
+   * <p>
+   * This allows the cache to ride out a slow or unavailable data source without the tail latency
+   * of its callers increasing. The cache's {@link Policy#expireAfterWrite()} reports the combined
+   * lifetime of the entry, while {@link Policy#refreshAfterWrite()} reports the time after which it
+   * is considered to be stale.
+   *
+   * @param staleLimit the length of time after an entry has expired that its value may be served
+   *     while it is reloaded
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code staleLimit} is zero or negative
+   * @throws IllegalStateException if the stale limit or the refresh interval was already set
+   * @throws ArithmeticException for durations greater than +/- approximately 292 years
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> staleWhileRevalidate(Duration staleLimit) {
+    long staleNanos = toNanosSaturated(staleLimit);
+    requireState(staleWhileRevalidateNanos == UNSET_INT,
+        "staleWhileRevalidate was already set to %s ns", staleWhileRevalidateNanos);
+    requireState(refreshAfterWriteNanos == UNSET_INT,
+        "staleWhileRevalidate may not be used with refreshAfterWrite");
+    requireArgument(staleNanos > 0, "staleLimit must be positive: %s", staleLimit);
+    this.staleWhileRevalidateNanos = staleNanos;
+    return this;
+  }
+
+  boolean servesStale() {
+    return (staleWhileRevalidateNanos != UNSET_INT);
+  }
+
+  /**
+   * Specifies that an entry may be refreshed before its {@link #refreshAfterWrite} duration has
+   * elapsed, so that the entries which were loaded together are not all reloaded at the same time.
+   * Each read of an entry triggers an early refresh with a probability that rises exponentially as
+   * the entry nears its refresh time, scaled by how long a refresh is observed to take. This
+   * follows the <a href="https://doi.org/10.14778/2757807.2757813">XFetch</a> algorithm, which
+   * spreads a wave of reloads over time rather than sending them to the data source as a burst.
+   * <p>
+   * The {@code beta} parameter tunes how eagerly an entry is refreshed, where a value of 1.0 is a
+   * reasonable default and larger values favor refreshing earlier. Until a refresh has completed
+   * and its duration has been measured, the entries are refreshed when their refresh time elapses.
+   *
+   * @param beta the scale of how early an entry may be refreshed, relative to the load time
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code beta} is not a positive number
+   * @throws IllegalStateException if the early refresh was already set
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> earlyRefresh(double beta) {
+    requireState(earlyRefreshBeta == UNSET_INT,
+        "earlyRefresh was already set to %s", earlyRefreshBeta);
+    requireArgument((beta > 0) && Double.isFinite(beta), "beta must be positive: %s", beta);
+    this.earlyRefreshBeta = beta;
+    return this;
+  }
+
+  boolean refreshesEarly() {
+    return earlyRefreshBeta != UNSET_INT;
+  }
+
+  double getEarlyRefreshBeta() {
+    return refreshesEarly() ? earlyRefreshBeta : 0.0;
+  }
+
+  /**
+   * Specifies that the misses of an {@link AsyncLoadingCache} should be coalesced into batches that
+   * are loaded by a single call to {@link AsyncCacheLoader#asyncLoadAll}. A batch is dispatched
+   * once it holds {@code maximumBatchSize} distinct keys or when {@code maximumDelay} has elapsed
+   * since its first key was requested, whichever occurs first. Each caller's future is completed
+   * from the shared result and is absent if the bulk load did not return a mapping for its key.
+   * <p>
+   * This trades a bounded increase in the latency of an individual miss for fewer round trips to
+   * the backing resource when many callers request different keys at almost the same time. The
+   * batch size and load latency can be observed through {@link Policy#coalescedLoads()}.
+   * <p>
+   * The delay is scheduled on a shared timer thread and the batch is then loaded on the
+   * {@link #executor(Executor)}. This option requires a loader that implements
+   * {@link AsyncCacheLoader#asyncLoadAll} or {@link CacheLoader#loadAll}, and may only be used by a
+   * cache built with {@link #buildAsync(CacheLoader)} or {@link #buildAsync(AsyncCacheLoader)}.
+   *
+   * @param maximumBatchSize the maximum number of keys to load in a single batch
+   * @param maximumDelay the maximum length of time to wait for a batch to fill
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code maximumBatchSize} is zero or negative, or if
+   *         {@code maximumDelay} is negative
+   * @throws IllegalStateException if the load coalescing was already set
+   * @throws ArithmeticException for durations greater than +/- approximately 292 years
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> coalesceLoads(int maximumBatchSize, Duration maximumDelay) {
+    long delayNanos = toNanosSaturated(maximumDelay);
+    requireState(coalesceMaximumBatchSize == UNSET_INT,
+        "coalesceLoads was already set to %s keys", coalesceMaximumBatchSize);
+    requireArgument(maximumBatchSize > 0,
+        "maximum batch size must be positive: %s", maximumBatchSize);
+    requireArgument(delayNanos >= 0, "maximum delay must not be negative: %s", maximumDelay);
+    this.coalesceMaximumBatchSize = maximumBatchSize;
+    this.coalesceMaximumDelayNanos = delayNanos;
+    return this;
+  }
+
+  boolean coalescesLoads() {
+    return (coalesceMaximumBatchSize != UNSET_INT);
+  }
+
+  /**
+   * Specifies that the automatic refreshes of a {@link LoadingCache} or {@link AsyncLoadingCache}
+   * should be coalesced into batches that are reloaded by a single call to
+   * {@link AsyncCacheLoader#asyncReloadAll}. A batch is dispatched once it holds
+   * {@code maximumBatchSize} distinct keys or when {@code maximumDelay} has elapsed since its first
+   * key became due, whichever occurs first. Each entry is then updated from the shared result under
+   * the same conflict checks as an individual refresh, so a write that occurred while the batch
+   * was in-flight is retained and the reloaded value is discarded.
+   * <p>
+   * This reduces the number of round trips to the backing resource when many entries become due
+   * for a refresh at almost the same time, such as when they were loaded together. The delay adds
+   * to how long a stale value may be served, which should be small relative to the
+   * {@link #refreshAfterWrite} duration.
+   * <p>
+   * The delay is scheduled on a shared timer thread and the batch is then reloaded on the
+   * {@link #executor(Executor)}. This option requires {@link #refreshAfterWrite} and a loader that
+   * implements {@link CacheLoader#reloadAll}, {@link AsyncCacheLoader#asyncReloadAll}, or one of
+   * their bulk load counterparts. Explicit calls to {@link LoadingCache#refresh} are not coalesced.
+   *
+   * @param maximumBatchSize the maximum number of keys to reload in a single batch
+   * @param maximumDelay the maximum length of time to wait for a batch to fill
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code maximumBatchSize} is zero or negative, or if
+   *         {@code maximumDelay} is negative
+   * @throws IllegalStateException if the refresh coalescing was already set
+   * @throws ArithmeticException for durations greater than +/- approximately 292 years
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> coalesceRefreshes(int maximumBatchSize, Duration maximumDelay) {
+    long delayNanos = toNanosSaturated(maximumDelay);
+    requireState(refreshCoalesceMaximumBatchSize == UNSET_INT,
+        "coalesceRefreshes was already set to %s keys", refreshCoalesceMaximumBatchSize);
+    requireArgument(maximumBatchSize > 0,
+        "maximum batch size must be positive: %s", maximumBatchSize);
+    requireArgument(delayNanos >= 0, "maximum delay must not be negative: %s", maximumDelay);
+    this.refreshCoalesceMaximumBatchSize = maximumBatchSize;
+    this.refreshCoalesceMaximumDelayNanos = delayNanos;
+    return this;
+  }
+
+  boolean coalescesRefreshes() {
+    return (refreshCoalesceMaximumBatchSize != UNSET_INT);
+  }
+
+  /**
+   * Specifies that the absence of a value should be remembered for a key when the loader or mapping
+   * function returns {@code null}, so that subsequent calls to {@link LoadingCache#get} and
+   * {@link Cache#get} for that key return {@code null} immediately rather than loading again. The
+   * absent keys are held in a separate region of the cache that is bounded by its own maximum size
+   * and expires its keys after the given duration since they were recorded, so that a scan over
+   * non-existent keys does not evict the cache's working set.
+   * <p>
+   * The absence of a key is forgotten when a value is written to the cache for it, such as by a
+   * {@code put} or {@code compute}, or when the key is invalidated. Only the single-key loading
+   * methods consult the absent keys; the {@link Cache#asMap()} view and the bulk loading methods
+   * are not affected. The size and statistics of the absent keys are available through
+   * {@link Policy#negativeCache()}, and their lookups are not recorded in {@link Cache#stats()}.
+   * <p>
+   * This feature cannot be used in conjunction with {@link #buildAsync}.
+   *
+   * @param maximumSize the maximum number of absent keys that may be remembered
+   * @param duration the length of time after an absent key is recorded that it should be forgotten
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code maximumSize} is negative, or if {@code duration} is
+   *         zero or negative
+   * @throws IllegalStateException if negative caching was already set
+   * @throws ArithmeticException for durations greater than +/- approximately 292 years
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> negativeCaching(@NonNegative long maximumSize, Duration duration) {
+    long durationNanos = toNanosSaturated(duration);
+    requireState(negativeMaximumSize == UNSET_INT,
+        "negativeCaching was already set to %s keys", negativeMaximumSize);
+    requireArgument(maximumSize >= 0, "maximum size must not be negative: %s", maximumSize);
+    requireArgument(durationNanos > 0, "duration must be positive: %s", duration);
+    this.negativeMaximumSize = maximumSize;
+    this.negativeExpireAfterWriteNanos = durationNanos;
+    return this;
+  }
+
+  boolean cachesNegatives() {
+    return (negativeMaximumSize != UNSET_INT);
+  }
+
+  /**
+   * Specifies that each thread should hold a small table of the cache's hottest entries that is
+   * consulted before the shared hash table. A read that is served by this table avoids the hash
+   * table probe and the read buffer, which makes it nearly free for the handful of keys that are
+   * read at a very high rate. An entry is admitted into a thread's table when its popularity, as
+   * estimated by the eviction policy, exceeds that of the entry it would replace.
+   * <p>
+   * The tables hold references to the cache's entries, so a write to an entry is immediately
+   * visible to a read through a thread's table and a removed or evicted entry is no longer served
+   * by it. The hits served by a thread's table are recorded in the {@link Cache#stats()} and
+   * credited to the eviction policy in small batches, so the statistics may lag slightly behind.
+   * <p>
+   * Each thread that reads from the cache allocates its own table, which may be wasteful if the
+   * cache is read by a very large number of threads, such as virtual threads, as the tables are
+   * not shared by the threads that run on the same carrier thread. A table is retained by the
+   * cache rather than by its thread, so it is released when its thread terminates, when the cache
+   * is discarded, or by {@link Cache#invalidateAll()}, but a thread that stops reading from the
+   * cache keeps its table and the entries that it references until then. This option requires
+   * {@link #maximumSize(long)} or {@link #maximumWeight(long)} and cannot be combined with
+   * expiration or {@link #refreshAfterWrite}, as a read through a thread's table does not check
+   * whether the entry has expired or is due for a refresh.
+   *
+   * @param maximumSize the maximum number of entries in each thread's table, rounded up to a power
+   *        of two
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code maximumSize} is zero or negative, or if it exceeds
+   *         1024 entries
+   * @throws IllegalStateException if the near cache was already set
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> nearCache(@NonNegative int maximumSize) {
+    requireState(nearCacheMaximumSize == UNSET_INT,
+        "nearCache was already set to %s entries", nearCacheMaximumSize);
+    requireArgument((maximumSize > 0) && (maximumSize <= MAXIMUM_NEAR_CACHE_SIZE),
+        "maximum size must be between 1 and %s: %s", MAXIMUM_NEAR_CACHE_SIZE, maximumSize);
+    this.nearCacheMaximumSize = maximumSize;
+    return this;
+  }
+
+  boolean hasNearCache() {
+    return (nearCacheMaximumSize != UNSET_INT);
+  }
+
+  /**
+   * Specifies that the cache should estimate which keys are accessed most frequently, so that they
+   * can be inspected through {@link Policy#heavyHitters(int)}, such as when diagnosing a hot spot.
+   * The estimate follows the Space-Saving algorithm, which monitors a fixed number of counters and
+   * is guaranteed to include every key that occurs more often than the number of accesses divided
+   * by the number of counters. The counts are aged alongside the eviction policy's popularity
+   * estimates, so that they reflect the recent workload.
+   * <p>
+   * The hits are recorded while the cache replays its reads to the eviction policy, so this
+   * tracking adds no work to the threads reading from the cache beyond the read buffer that is
+   * already used. A miss is recorded when its loaded or inserted entry is added to the eviction
+   * policy, which includes the keys that were since evicted, but a lookup that neither finds nor
+   * loads an entry is not recorded. The monitored keys are retained strongly, so this option
+   * requires that the cache holds its keys strongly, and it requires {@link #maximumSize(long)}
+   * or {@link #maximumWeight(long)}.
+   *
+   * @param capacity the number of keys to monitor
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code capacity} is zero or negative
+   * @throws IllegalStateException if the heavy hitter tracking was already set
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> trackHeavyHitters(@NonNegative int capacity) {
+    requireState(heavyHittersCapacity == UNSET_INT,
+        "trackHeavyHitters was already set to %s keys", heavyHittersCapacity);
+    requireArgument(capacity > 0, "capacity must be positive: %s", capacity);
+    this.heavyHittersCapacity = capacity;
+    return this;
+  }
+
+  boolean tracksHeavyHitters() {
+    return (heavyHittersCapacity != UNSET_INT);
   }
 
   /**
@@ -930,7 +1273,9 @@ public final class Caffeine<K, V> {
    * part of the routine maintenance described in the class documentation above. For a more prompt
    * notification on expiration a {@link #scheduler(Scheduler)} may be configured. An
    * {@link #evictionListener(RemovalListener)} may be preferred when the listener should be invoked
-   * as part of the atomic operation to remove the entry.
+   * as part of the atomic operation to remove the entry. A {@link BatchRemovalListener} receives
+   * the notifications in batches, which reduces the number of tasks submitted to the executor when
+   * many entries are removed.
    * <p>
    * <b>Important note:</b> after invoking this method, do not continue to use <i>this</i> cache
    * builder reference; instead use the reference this method <i>returns</i>. At runtime, these
@@ -968,6 +1313,10 @@ public final class Caffeine<K, V> {
   @SuppressWarnings({"JavaAnnotator", "unchecked"})
   @Nullable <K1 extends K, V1 extends V> RemovalListener<K1, V1> getRemovalListener(boolean async) {
     RemovalListener<K1, V1> castedListener = (RemovalListener<K1, V1>) removalListener;
+    if (castedListener instanceof BatchRemovalListener<?, ?>) {
+      castedListener = new BatchingRemovalListener<>(
+          (BatchRemovalListener<K1, V1>) castedListener, getExecutor());
+    }
     return async && (castedListener != null)
         ? (RemovalListener<K1, V1>) new AsyncRemovalListener<>(castedListener, getExecutor())
         : castedListener;
@@ -1010,6 +1359,34 @@ public final class Caffeine<K, V> {
     return (statsCounterSupplier != null);
   }
 
+  /**
+   * Specifies that the size eviction policy should take into account how long it takes to load an
+   * entry, so that an entry that is expensive to reload is favored over a cheaper one of similar
+   * popularity. This can reduce the total time spent on loading, such as waiting on a remote data
+   * store, when the load times of the entries vary widely, even if the hit rate is not improved.
+   * <p>
+   * The cost of an entry is estimated from the duration of its recent successful loads, as measured
+   * for the statistics, so this setting requires {@link #recordStats}. The estimate is approximate
+   * and may be shared with other entries due to hash collisions. The cost is on a logarithmic
+   * scale, so that a slow entry which is rarely used is still evicted in favor of a fast one that
+   * is used often. An entry that was inserted directly, such as by {@link Cache#put}, does not
+   * contribute a cost. This setting has no effect unless the cache is bounded by
+   * {@link #maximumSize} or {@link #maximumWeight}.
+   *
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalStateException if the miss cost awareness was already set
+   */
+  @CanIgnoreReturnValue
+  public Caffeine<K, V> missCostAware() {
+    requireState(!missCostAware, "miss cost awareness was already set");
+    missCostAware = true;
+    return this;
+  }
+
+  boolean isMissCostAware() {
+    return missCostAware;
+  }
+
   Supplier<StatsCounter> getStatsCounterSupplier() {
     return (statsCounterSupplier == null)
         ? StatsCounter::disabledStatsCounter
@@ -1023,7 +1400,8 @@ public final class Caffeine<K, V> {
         || (expireAfterWriteNanos != UNSET_INT)
         || (expiry != null)
         || (keyStrength != null)
-        || (valueStrength != null);
+        || (valueStrength != null)
+        || cachesNegatives();
   }
 
   /**
@@ -1043,7 +1421,14 @@ public final class Caffeine<K, V> {
    */
   public <K1 extends K, V1 extends V> Cache<K1, V1> build() {
     requireWeightWithWeigher();
+    requireStatsWithMissCost();
+    requireRefreshWithEarlyRefresh();
+    requireBulkReloadWithCoalescedRefreshes(/* loader */ null);
+    requireExpirationWithStale();
+    requireEvictionWithNearCache();
+    requireEvictionWithHeavyHitters();
     requireNonLoadingCache();
+    requireNonCoalescingCache();
 
     @SuppressWarnings("unchecked")
     Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
@@ -1058,6 +1443,11 @@ public final class Caffeine<K, V> {
    * loading the value for this key, simply waits for that thread to finish and returns its loaded
    * value. Note that multiple threads can concurrently load values for distinct keys.
    * <p>
+   * The loader is invoked within the hash table's computation. Consider using
+   * {@code buildAsync(loader).synchronous()} instead if the loader may block for a long time, for
+   * example when the callers run on virtual threads, as then the load is performed on the
+   * {@link #executor(Executor)} and the callers wait outside of the hash table's lock.
+   * <p>
    * This method does not alter the state of this {@code Caffeine} instance, so it can be invoked
    * again to create multiple independent caches.
    *
@@ -1069,6 +1459,13 @@ public final class Caffeine<K, V> {
   public <K1 extends K, V1 extends V> LoadingCache<K1, V1> build(
       CacheLoader<? super K1, V1> loader) {
     requireWeightWithWeigher();
+    requireStatsWithMissCost();
+    requireRefreshWithEarlyRefresh();
+    requireBulkReloadWithCoalescedRefreshes(loader);
+    requireExpirationWithStale();
+    requireEvictionWithNearCache();
+    requireEvictionWithHeavyHitters();
+    requireNonCoalescingCache();
 
     @SuppressWarnings("unchecked")
     Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
@@ -1102,7 +1499,15 @@ public final class Caffeine<K, V> {
     requireState(isStrongKeys() || (evictionListener == null),
         "Weak keys cannot be combined eviction listener and with AsyncLoadingCache");
     requireWeightWithWeigher();
+    requireStatsWithMissCost();
+    requireRefreshWithEarlyRefresh();
+    requireBulkReloadWithCoalescedRefreshes(/* loader */ null);
+    requireExpirationWithStale();
+    requireEvictionWithNearCache();
+    requireEvictionWithHeavyHitters();
     requireNonLoadingCache();
+    requireNonCoalescingCache();
+    requireNonNegativeCaching();
 
     @SuppressWarnings("unchecked")
     Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
@@ -1159,7 +1564,14 @@ public final class Caffeine<K, V> {
     requireState(isStrongKeys() || (evictionListener == null),
         "Weak keys cannot be combined eviction listener and with AsyncLoadingCache");
     requireWeightWithWeigher();
+    requireStatsWithMissCost();
     requireNonNull(loader);
+    requireRefreshWithEarlyRefresh();
+    requireBulkReloadWithCoalescedRefreshes(loader);
+    requireExpirationWithStale();
+    requireEvictionWithNearCache();
+    requireEvictionWithHeavyHitters();
+    requireNonNegativeCaching();
 
     @SuppressWarnings("unchecked")
     Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
@@ -1170,6 +1582,54 @@ public final class Caffeine<K, V> {
 
   void requireNonLoadingCache() {
     requireState(refreshAfterWriteNanos == UNSET_INT, "refreshAfterWrite requires a LoadingCache");
+    requireState(!servesStale(), "staleWhileRevalidate requires a LoadingCache");
+  }
+
+  void requireExpirationWithStale() {
+    requireState(!servesStale() || (expiresAfterWrite() && (expireAfterWriteNanos > 0)),
+        "staleWhileRevalidate requires a positive expireAfterWrite");
+  }
+
+  void requireNonCoalescingCache() {
+    requireState(coalesceMaximumBatchSize == UNSET_INT,
+        "coalesceLoads requires an AsyncLoadingCache");
+  }
+
+  void requireEvictionWithNearCache() {
+    if (hasNearCache()) {
+      requireState(evicts(), "nearCache requires maximumSize or maximumWeight");
+      requireState(!expiresAfterAccess() && !expiresAfterWrite() && !expiresVariable()
+          && !refreshAfterWrite(), "nearCache cannot be combined with expiration or refresh");
+    }
+  }
+
+  void requireEvictionWithHeavyHitters() {
+    if (tracksHeavyHitters()) {
+      requireState(evicts(), "trackHeavyHitters requires maximumSize or maximumWeight");
+      requireState(isStrongKeys(), "trackHeavyHitters requires strong keys");
+    }
+  }
+
+  void requireNonNegativeCaching() {
+    requireState(!cachesNegatives(), "negativeCaching requires a synchronous cache");
+  }
+
+  void requireRefreshWithEarlyRefresh() {
+    requireState(!refreshesEarly() || refreshAfterWrite(),
+        "earlyRefresh requires refreshAfterWrite");
+  }
+
+  void requireBulkReloadWithCoalescedRefreshes(@Nullable AsyncCacheLoader<?, ?> loader) {
+    if (coalescesRefreshes()) {
+      requireState(refreshAfterWrite(), "coalesceRefreshes requires refreshAfterWrite");
+      requireState((loader == null) || BoundedLocalCache.canBulkReload(loader),
+          "coalesceRefreshes requires a loader that implements reloadAll, asyncReloadAll, "
+              + "loadAll, or asyncLoadAll");
+    }
+  }
+
+  void requireStatsWithMissCost() {
+    requireState(!missCostAware || isRecordingStats(), "missCostAware requires recordStats");
   }
 
   void requireWeightWithWeigher() {
@@ -1182,6 +1642,12 @@ public final class Caffeine<K, V> {
     }
   }
 
+  /** Returns the sum of the durations, saturating to {@link Long#MAX_VALUE} on overflow. */
+  static long saturatedAdd(long a, long b) {
+    long naiveSum = a + b;
+    return ((a ^ b) < 0) | ((a ^ naiveSum) >= 0) ? naiveSum : Long.MAX_VALUE;
+  }
+
   /**
    * Returns the number of nanoseconds of the given duration without throwing or overflowing.
    * <p>
@@ -1225,6 +1691,33 @@ public final class Caffeine<K, V> {
     if (refreshAfterWriteNanos != UNSET_INT) {
       s.append("refreshAfterWrite=").append(refreshAfterWriteNanos).append("ns, ");
     }
+    if (servesStale()) {
+      s.append("staleWhileRevalidate=").append(staleWhileRevalidateNanos).append("ns, ");
+    }
+    if (refreshesEarly()) {
+      s.append("earlyRefresh=").append(earlyRefreshBeta).append(", ");
+    }
+    if (missCostAware) {
+      s.append("missCostAware, ");
+    }
+    if (coalesceMaximumBatchSize != UNSET_INT) {
+      s.append("coalesceLoads=").append(coalesceMaximumBatchSize).append(" keys/")
+          .append(coalesceMaximumDelayNanos).append("ns, ");
+    }
+    if (refreshCoalesceMaximumBatchSize != UNSET_INT) {
+      s.append("coalesceRefreshes=").append(refreshCoalesceMaximumBatchSize).append(" keys/")
+          .append(refreshCoalesceMaximumDelayNanos).append("ns, ");
+    }
+    if (cachesNegatives()) {
+      s.append("negativeCaching=").append(negativeMaximumSize).append(" keys/")
+          .append(negativeExpireAfterWriteNanos).append("ns, ");
+    }
+    if (hasNearCache()) {
+      s.append("nearCache=").append(nearCacheMaximumSize).append(", ");
+    }
+    if (tracksHeavyHitters()) {
+      s.append("trackHeavyHitters=").append(heavyHittersCapacity).append(", ");
+    }
     if (keyStrength != null) {
       s.append("keyStrength=").append(keyStrength.toString().toLowerCase(US)).append(", ");
     }
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.github.benmanes.caffeine.cache.Policy.CoalescedLoads;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * A mapping function that coalesces the individual loads of an {@link AsyncLoadingCache} into
+ * batches that are loaded by a single call to {@link AsyncCacheLoader#asyncLoadAll}. A batch is
+ * dispatched when it reaches the maximum size or once the maximum delay has elapsed since its first
+ * key was added, whichever occurs first.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class CoalescingBulkLoader<K, V>
+    implements BiFunction<K, Executor, CompletableFuture<V>>, CoalescedLoads {
+  static final Logger logger = System.getLogger(CoalescingBulkLoader.class.getName());
+
+  /*
+   * The pending batch is guarded by a lock that is held only to add a key or to swap in an empty
+   * batch, so the bulk load is always invoked outside of it. The first key added to an empty batch
+   * schedules a flush after the maximum delay. If the batch fills up first then the caller that
+   * completed it dispatches the load, and the scheduled flush observes that the generation has
+   * advanced and does nothing.
+   *
+   * A key is added while the cache's map is computing its entry, so neither the dispatch nor the
+   * flush may run inline. A bulk load that completes on the calling thread, such as when using a
+   * same-thread executor, would otherwise complete the other callers' futures and run their
+   * dependent actions while the map's lock is held, which could then fail with a recursive update.
+   * Instead the work is deferred to a thread-local and the caller runs it by calling runDeferred()
+   * after the map operation has returned.
+   *
+   * The delay is tracked by the shared timer of CompletableFuture.delayedExecutor, which then
+   * submits the flush to the cache's executor. If that executor rejects the task then the flush is
+   * run on the timer's thread so that the callers' futures are not left incomplete.
+   */
+
+  final BiFunction<Set<? extends K>, Executor, CompletableFuture<Map<K, V>>> bulkMappingFunction;
+  final long maximumDelayNanos;
+  final int maximumBatchSize;
+  final ReentrantLock lock;
+  final LongAdder totalLoadTime;
+  final LongAdder batchCount;
+  final LongAdder keyCount;
+
+  @GuardedBy("lock")
+  Map<K, CompletableFuture<V>> pending;
+  @GuardedBy("lock")
+  long generation;
+
+  final ThreadLocal<@Nullable Runnable> deferred;
+
+  CoalescingBulkLoader(BiFunction<Set<? extends K>, Executor,
+      CompletableFuture<Map<K, V>>> bulkMappingFunction,
+      int maximumBatchSize, long maximumDelayNanos) {
+    this.bulkMappingFunction = requireNonNull(bulkMappingFunction);
+    this.maximumDelayNanos = maximumDelayNanos;
+    this.maximumBatchSize = maximumBatchSize;
+    this.pending = new LinkedHashMap<>();
+    this.totalLoadTime = new LongAdder();
+    this.lock = new ReentrantLock();
+    this.batchCount = new LongAdder();
+    this.keyCount = new LongAdder();
+    this.deferred = new ThreadLocal<>();
+  }
+
+  @Override
+  public CompletableFuture<V> apply(K key, Executor executor) {
+    requireNonNull(key);
+    requireNonNull(executor);
+
+    Map<K, CompletableFuture<V>> batch = null;
+    CompletableFuture<V> future;
+    long scheduled = -1;
+
+    lock.lock();
+    try {
+      future = pending.get(key);
+      if (future != null) {
+        return future;
+      }
+      future = new CompletableFuture<>();
+      pending.put(key, future);
+      if (pending.size() >= maximumBatchSize) {
+        batch = takePending();
+      } else if (pending.size() == 1) {
+        scheduled = generation;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (batch != null) {
+      var fullBatch = batch;
+      defer(() -> dispatch(fullBatch, executor));
+    } else if (scheduled >= 0) {
+      long expectedGeneration = scheduled;
+      defer(() -> schedule(expectedGeneration, executor));
+    }
+    return future;
+  }
+
+  /** Records the task to be run by the calling thread once it has left the map operation. */
+  void defer(Runnable task) {
+    Runnable prior = deferred.get();
+    if (prior == null) {
+      deferred.set(task);
+    } else {
+      deferred.set(() -> {
+        prior.run();
+        task.run();
+      });
+    }
+  }
+
+  /**
+   * Runs the dispatches and flushes that were deferred by the calling thread when adding its keys.
+   * This must be called after the map operation that invoked {@link #apply} has returned.
+   */
+  void runDeferred() {
+    Runnable task = deferred.get();
+    if (task != null) {
+      deferred.remove();
+      task.run();
+    }
+  }
+
+  /** Returns the pending batch and replaces it with an empty one. */
+  @GuardedBy("lock")
+  Map<K, CompletableFuture<V>> takePending() {
+    var batch = pending;
+    pending = new LinkedHashMap<>();
+    generation++;
+    return batch;
+  }
+
+  /** Schedules the pending batch to be dispatched after the maximum delay has elapsed. */
+  void schedule(long expectedGeneration, Executor executor) {
+    Runnable flush = () -> flush(expectedGeneration, executor);
+    Executor timer = (maximumDelayNanos == 0)
+        ? Runnable::run
+        : CompletableFuture.delayedExecutor(maximumDelayNanos, NANOSECONDS, Runnable::run);
+    timer.execute(() -> {
+      try {
+        executor.execute(flush);
+      } catch (Throwable t) {
+        logger.log(Level.WARNING, "Exception thrown when submitting a coalesced load", t);
+        flush.run();
+      }
+    });
+  }
+
+  /** Dispatches the pending batch if it has not already been taken by a full batch. */
+  void flush(long expectedGeneration, Executor executor) {
+    Map<K, CompletableFuture<V>> batch;
+    lock.lock();
+    try {
+      if ((generation != expectedGeneration) || pending.isEmpty()) {
+        return;
+      }
+      batch = takePending();
+    } finally {
+      lock.unlock();
+    }
+    dispatch(batch, executor);
+  }
+
+  /** Loads the batch in bulk and completes each caller's future from the shared result. */
+  void dispatch(Map<K, CompletableFuture<V>> batch, Executor executor) {
+    long startTime = System.nanoTime();
+    CompletableFuture<Map<K, V>> result;
+    try {
+      result = bulkMappingFunction.apply(Collections.unmodifiableSet(batch.keySet()), executor);
+      requireNonNull(result, "asyncLoadAll returned a null future");
+    } catch (Throwable t) {
+      complete(batch, /* result */ null, t, startTime);
+      return;
+    }
+    result.whenComplete((map, error) -> complete(batch, map, error, startTime));
+  }
+
+  /** Completes the futures in the batch and records the statistics. */
+  void complete(Map<K, CompletableFuture<V>> batch,
+      @Nullable Map<K, V> result, @Nullable Throwable error, long startTime) {
+    totalLoadTime.add(Math.max(0L, System.nanoTime() - startTime));
+    keyCount.add(batch.size());
+    batchCount.increment();
+
+    for (var entry : batch.entrySet()) {
+      if ((error == null) && (result != null)) {
+        entry.getValue().complete(result.get(entry.getKey()));
+      } else {
+        entry.getValue().completeExceptionally((error == null)
+            ? new NullPointerException("asyncLoadAll completed with a null map")
+            : error);
+      }
+    }
+  }
+
+  @Override
+  public int maximumBatchSize() {
+    return maximumBatchSize;
+  }
+
+  @Override
+  public Duration maximumDelay() {
+    return Duration.ofNanos(maximumDelayNanos);
+  }
+
+  @Override
+  public long batchCount() {
+    return batchCount.sum();
+  }
+
+  @Override
+  public long keyCount() {
+    return keyCount.sum();
+  }
+
+  @Override
+  public long totalLoadTime() {
+    return totalLoadTime.sum();
+  }
+}
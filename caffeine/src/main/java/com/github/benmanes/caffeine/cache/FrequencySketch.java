@@ -16,6 +16,7 @@
 package com.github.benmanes.caffeine.cache;
 
 import static com.github.benmanes.caffeine.cache.Caffeine.requireArgument;
+import static com.github.benmanes.caffeine.cache.Caffeine.requireState;
 
 import org.checkerframework.checker.index.qual.NonNegative;
 
@@ -101,6 +102,48 @@ final class FrequencySketch<E> {
     size = 0;
   }
 
+  /**
+   * Replaces the popularity counts with a previously captured state, such as when warming a new
+   * cache from a snapshot of a prior instance. The sketch must already be sized by
+   * {@link #ensureCapacity} for the cache's maximum, so that a later resize does not discard the
+   * restored history. If the captured table has a different length then its counters are rescaled
+   * to this sketch's table, which may overestimate the popularity of some elements.
+   *
+   * @param counters the table of counters
+   * @param sampleSize the number of increments before the counters are aged
+   * @param size the number of increments since the counters were last aged
+   */
+  public void restore(long[] counters, int sampleSize, int size) {
+    requireArgument((counters.length >= 8) && (Integer.bitCount(counters.length) == 1));
+    requireArgument((sampleSize > 0) && (size >= 0) && (size < sampleSize));
+    requireState(!isNotInitialized(), "The sketch must be sized before it is restored");
+
+    long[] restored = new long[table.length];
+    if (counters.length <= table.length) {
+      // An element's block in the larger table is congruent to its block in the captured table
+      for (int i = 0; i < restored.length; i++) {
+        restored[i] = counters[i & (counters.length - 1)];
+      }
+    } else {
+      // Fold the captured blocks that share a block in the smaller table
+      for (int i = 0; i < counters.length; i++) {
+        int index = i & (table.length - 1);
+        restored[index] = maxCounters(restored[index], counters[i]);
+      }
+    }
+    table = restored;
+    this.size = (int) Math.min(this.sampleSize - 1L, ((long) size * this.sampleSize) / sampleSize);
+  }
+
+  /** Returns the larger of each pair of 4-bit counters. */
+  static long maxCounters(long a, long b) {
+    long result = 0L;
+    for (int offset = 0; offset < Long.SIZE; offset += 4) {
+      result |= Math.max((a >>> offset) & 0xfL, (b >>> offset) & 0xfL) << offset;
+    }
+    return result;
+  }
+
   /**
    * Returns if the sketch has not yet been initialized, requiring that {@link #ensureCapacity} is
    * called before it begins to track frequencies.
@@ -120,16 +163,35 @@ final class FrequencySketch<E> {
     if (isNotInitialized()) {
       return 0;
     }
+    return frequency(table, blockMask, e);
+  }
+
+  /**
+   * Returns the estimated number of occurrences of an element, up to the maximum (15), without
+   * requiring that the caller has exclusive access to the sketch. The table is read once and its
+   * block mask is derived from its length, so a concurrent resize may cause a stale estimate but
+   * not an index that is out of bounds.
+   *
+   * @param e the element to count occurrences of
+   * @return the estimated number of occurrences of the element; possibly zero but never negative
+   */
+  @NonNegative
+  public int racyFrequency(E e) {
+    long[] counters = table;
+    return (counters == null) ? 0 : frequency(counters, (counters.length >>> 3) - 1, e);
+  }
 
+  /** Returns the estimated number of occurrences of the element in the table. */
+  static int frequency(long[] counters, int mask, Object e) {
     int[] count = new int[4];
     int blockHash = spread(e.hashCode());
     int counterHash = rehash(blockHash);
-    int block = (blockHash & blockMask) << 3;
+    int block = (blockHash & mask) << 3;
     for (int i = 0; i < 4; i++) {
       int h = counterHash >>> (i << 3);
       int index = (h >>> 1) & 15;
       int offset = h & 1;
-      count[i] = (int) ((table[block + offset + (i << 1)] >>> (index << 2)) & 0xfL);
+      count[i] = (int) ((counters[block + offset + (i << 1)] >>> (index << 2)) & 0xfL);
     }
     return Math.min(Math.min(count[0], count[1]), Math.min(count[2], count[3]));
   }
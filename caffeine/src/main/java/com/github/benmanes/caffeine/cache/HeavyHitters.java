@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.requireArgument;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * A streaming estimate of the most frequently accessed keys, including keys that are not currently
+ * resident in the cache. The counts are aged alongside the frequency sketch so that the estimate
+ * reflects the recent workload.
+ * <p>
+ * This class is not thread-safe and must be guarded by the cache's eviction lock.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class HeavyHitters<K> {
+
+  /*
+   * This class implements the Space-Saving algorithm [1], which monitors a fixed number of
+   * counters. An access to a monitored key increments its counter, while an access to an
+   * unmonitored key takes over the counter with the smallest count and increments it. The count is
+   * an overestimate of the key's true frequency by at most the error that it inherited, so any key
+   * that occurs more often than the number of events divided by the number of counters is
+   * guaranteed to be monitored.
+   *
+   * The counters are kept in an indexed binary min-heap so that the smallest counter is found in
+   * constant time and an increment restores the heap order in logarithmic time. The counters are
+   * halved when the number of events reaches the sample period of the FrequencySketch, which
+   * retains the heap order because halving is monotonic.
+   *
+   * [1] Efficient Computation of Frequent and Top-k Elements in Data Streams
+   */
+
+  final Map<K, Counter<K>> counters;
+  final Counter<K>[] heap;
+
+  int events;
+  int size;
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  HeavyHitters(@NonNegative int capacity) {
+    requireArgument(capacity > 0);
+    counters = new HashMap<>(Caffeine.calculateHashMapCapacity(capacity));
+    heap = new Counter[capacity];
+  }
+
+  /**
+   * Records an occurrence of the key.
+   *
+   * @param key the key that was accessed
+   * @param period the number of events before the counts are aged, or zero to not age them
+   */
+  void record(K key, int period) {
+    if ((period > 0) && (++events >= period)) {
+      age();
+    }
+
+    Counter<K> counter = counters.get(key);
+    if (counter == null) {
+      if (size < heap.length) {
+        counter = new Counter<>(key);
+        counter.count = 1;
+        counters.put(key, counter);
+        siftUp(counter, size++);
+        return;
+      }
+      counter = heap[0];
+      counters.remove(counter.key);
+      counter.error = counter.count;
+      counter.key = key;
+      counters.put(key, counter);
+    }
+    counter.count++;
+    siftDown(counter);
+  }
+
+  /** Halves the counts of all of the monitored keys. */
+  void age() {
+    events = 0;
+    for (int i = 0; i < size; i++) {
+      heap[i].count >>>= 1;
+      heap[i].error >>>= 1;
+    }
+  }
+
+  /**
+   * Returns the keys with the highest estimated counts, ordered from the most to the least
+   * frequent.
+   *
+   * @param limit the maximum number of keys to return
+   * @return an ordered map of the keys to their estimated counts
+   */
+  Map<K, Long> snapshot(@NonNegative int limit) {
+    requireArgument(limit >= 0);
+    @SuppressWarnings("unchecked")
+    Counter<K>[] sorted = Arrays.copyOf(heap, size);
+    Arrays.sort(sorted, Comparator.comparingLong((Counter<K> counter) -> counter.count).reversed());
+
+    int length = Math.min(limit, size);
+    var result = new LinkedHashMap<K, Long>(Caffeine.calculateHashMapCapacity(length));
+    for (int i = 0; i < length; i++) {
+      if (sorted[i].count > 0) {
+        result.put(sorted[i].key, sorted[i].count);
+      }
+    }
+    return result;
+  }
+
+  /** Moves the new counter towards the top of the heap until its parent has a smaller count. */
+  void siftUp(Counter<K> counter, int index) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (heap[parent].count <= counter.count) {
+        break;
+      }
+      heap[index] = heap[parent];
+      heap[index].index = index;
+      index = parent;
+    }
+    heap[index] = counter;
+    counter.index = index;
+  }
+
+  /** Moves the counter towards the bottom of the heap until its children have larger counts. */
+  void siftDown(Counter<K> counter) {
+    int index = counter.index;
+    for (;;) {
+      int child = (index << 1) + 1;
+      if (child >= size) {
+        break;
+      }
+      int right = child + 1;
+      if ((right < size) && (heap[right].count < heap[child].count)) {
+        child = right;
+      }
+      if (counter.count <= heap[child].count) {
+        break;
+      }
+      heap[index] = heap[child];
+      heap[index].index = index;
+      index = child;
+    }
+    heap[index] = counter;
+    counter.index = index;
+  }
+
+  /** A monitored key with its estimated count and the overestimation it inherited. */
+  static final class Counter<K> {
+    K key;
+    long count;
+    long error;
+    int index;
+
+    Counter(K key) {
+      this.key = key;
+    }
+  }
+}
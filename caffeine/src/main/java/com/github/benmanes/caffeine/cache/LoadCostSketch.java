@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.requireArgument;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * A probabilistic estimate of how expensive it is to load an element, as measured by its recent
+ * load times. The cost is a logarithmic scale from 0 (under 64 microseconds) to 15 (a second or
+ * longer), so that a slow element is favored by the eviction policy without its popularity being
+ * disregarded entirely.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class LoadCostSketch<E> {
+
+  /*
+   * This class maintains a direct-mapped table of 4-bit costs that supplements the popularity
+   * estimated by the FrequencySketch, in the spirit of the GreedyDual-Size-Frequency family of
+   * policies [1]. Each element is hashed to a single byte that holds the average of its recent
+   * cost measurements, so an element that collides with another observes a blended cost. As the
+   * table is sized to the number of entries in the cache, this error is small and its impact is
+   * bounded by the coarse logarithmic scale.
+   *
+   * The costs are recorded by the threads that performed the loads, so the table is written to
+   * without synchronization. A race may cause a measurement to be lost or a resize to discard a
+   * write, which only degrades the accuracy of the estimate. The table is resized while holding the
+   * eviction lock and a reader or writer works on the array that it observed, so a stale reference
+   * is harmless.
+   *
+   * [1] Improving Web Servers and Proxies Performance with GDSF Caching Policies
+   */
+
+  /** The number of low-order bits in the load time, in nanoseconds, that are ignored. */
+  static final int COST_SHIFT = 16;
+  /** The maximum cost of an element. */
+  static final int MAXIMUM_COST = 15;
+
+  byte[] table;
+
+  /** Creates a sketch that requires {@link #ensureCapacity} be called once the maximum is set. */
+  public LoadCostSketch() {
+    table = new byte[8];
+  }
+
+  /**
+   * Increases the capacity of this sketch, if necessary, to ensure that it can accurately estimate
+   * the cost of elements given the maximum size of the cache. This operation forgets all previous
+   * costs when resizing.
+   *
+   * @param maximumSize the maximum size of the cache
+   */
+  public void ensureCapacity(@NonNegative long maximumSize) {
+    requireArgument(maximumSize >= 0);
+    int maximum = (int) Math.min(maximumSize, Integer.MAX_VALUE >>> 1);
+    if (table.length >= maximum) {
+      return;
+    }
+    table = new byte[Math.max(Caffeine.ceilingPowerOfTwo(maximum), 8)];
+  }
+
+  /**
+   * Returns the estimated cost of loading the element, within the range of 0 to 15.
+   *
+   * @param e the element to estimate the cost of
+   * @return the estimated cost of the element
+   */
+  @NonNegative
+  public int cost(E e) {
+    byte[] costs = table;
+    return costs[indexOf(e, costs.length - 1)];
+  }
+
+  /**
+   * Records the time that it took to load the element.
+   *
+   * @param e the element that was loaded
+   * @param loadTime the duration, in nanoseconds, that it took to load the element
+   */
+  public void record(E e, long loadTime) {
+    int cost = costOf(loadTime);
+    byte[] costs = table;
+    int index = indexOf(e, costs.length - 1);
+    int previous = costs[index];
+    costs[index] = (byte) ((previous == 0) ? cost : ((previous + cost + 1) >>> 1));
+  }
+
+  /** Returns the cost on a logarithmic scale for the load time. */
+  static int costOf(long loadTime) {
+    if (loadTime <= 0) {
+      return 0;
+    }
+    int bits = Long.SIZE - Long.numberOfLeadingZeros(loadTime >>> COST_SHIFT);
+    return Math.min(bits, MAXIMUM_COST);
+  }
+
+  /** Returns the table index for the element. */
+  static int indexOf(Object e, int mask) {
+    return FrequencySketch.spread(e.hashCode()) & mask;
+  }
+}
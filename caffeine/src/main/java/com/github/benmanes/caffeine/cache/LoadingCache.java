@@ -48,6 +48,13 @@ public interface LoadingCache<K, V> extends Cache<K, V> {
    * on this cache by other threads may be blocked while the computation is in progress, so the
    * computation should be short and simple, and must not attempt to update any other mappings of
    * this cache.
+   * <p>
+   * The loader is invoked while holding a lock on the hash table's bin, which may also guard other
+   * keys. A virtual thread that blocks while holding this lock may pin its carrier thread. If the
+   * loader performs long-running or blocking I/O then prefer the view provided by
+   * {@link AsyncLoadingCache#synchronous()}, which only establishes an in-flight future while
+   * holding the bin lock and performs the load on the cache's executor, such as one that creates a
+   * virtual thread per task. The callers then wait on the future outside of the hash table's lock.
    *
    * @param key the key with which the specified value is to be associated
    * @return the current (existing or computed) value associated with the specified key, or null if
@@ -216,6 +216,7 @@ interface LocalAsyncCache<K, V> extends AsyncCache<K, V> {
 
         // update the weight and expiration timestamps
         cache().statsCounter().recordLoadSuccess(loadTime);
+        cache().recordLoadCost(key, loadTime);
         cache().replace(key, castedFuture, castedFuture, /* shouldDiscardRefresh */ false);
       }
       if (recordMiss) {
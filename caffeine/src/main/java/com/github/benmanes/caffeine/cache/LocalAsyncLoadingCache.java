@@ -49,15 +49,31 @@ abstract class LocalAsyncLoadingCache<K, V>
       ? extends CompletableFuture<? extends Map<? extends K, ? extends V>>> bulkMappingFunction;
   final BiFunction<? super K, ? super Executor,
       ? extends CompletableFuture<? extends V>> mappingFunction;
+  final @Nullable CoalescingBulkLoader<K, V> coalescer;
   final AsyncCacheLoader<K, V> cacheLoader;
 
   @Nullable LoadingCacheView<K, V> cacheView;
 
   @SuppressWarnings("unchecked")
-  LocalAsyncLoadingCache(AsyncCacheLoader<? super K, V> cacheLoader) {
-    this.bulkMappingFunction = newBulkMappingFunction(cacheLoader);
+  LocalAsyncLoadingCache(Caffeine<?, ?> builder, AsyncCacheLoader<? super K, V> cacheLoader) {
+    var bulkMappingFunction = newBulkMappingFunction(cacheLoader);
+    this.coalescer = newCoalescer(builder, bulkMappingFunction);
     this.cacheLoader = (AsyncCacheLoader<K, V>) cacheLoader;
-    this.mappingFunction = newMappingFunction(cacheLoader);
+    this.bulkMappingFunction = bulkMappingFunction;
+    this.mappingFunction = (coalescer == null) ? newMappingFunction(cacheLoader) : coalescer;
+  }
+
+  /** Returns a mapping function that coalesces the loads into batches, if enabled. */
+  static <K, V> @Nullable CoalescingBulkLoader<K, V> newCoalescer(Caffeine<?, ?> builder,
+      @Nullable BiFunction<Set<? extends K>, Executor, CompletableFuture<Map<K, V>>> bulkLoader) {
+    if (!builder.coalescesLoads()) {
+      return null;
+    } else if (bulkLoader == null) {
+      throw new IllegalStateException(
+          "coalesceLoads requires a loader that implements asyncLoadAll or loadAll");
+    }
+    return new CoalescingBulkLoader<>(bulkLoader,
+        builder.coalesceMaximumBatchSize, builder.coalesceMaximumDelayNanos);
   }
 
   /** Returns a mapping function that adapts to {@link AsyncCacheLoader#asyncLoad}. */
@@ -130,7 +146,18 @@ abstract class LocalAsyncLoadingCache<K, V>
 
   @Override
   public CompletableFuture<V> get(K key) {
-    return get(key, mappingFunction);
+    return load(key, /* recordStats */ true);
+  }
+
+  /** Returns the future for the key, dispatching any coalesced batch after the map operation. */
+  CompletableFuture<V> load(K key, boolean recordStats) {
+    try {
+      return get(key, mappingFunction, recordStats);
+    } finally {
+      if (coalescer != null) {
+        coalescer.runDeferred();
+      }
+    }
   }
 
   @Override
@@ -230,7 +257,7 @@ abstract class LocalAsyncLoadingCache<K, V>
         if (oldValueFuture != null) {
           asyncCache.cache().remove(key, oldValueFuture);
         }
-        var future = asyncCache.get(key, asyncCache.mappingFunction, /* recordStats */ false);
+        var future = asyncCache.load(key, /* recordStats */ false);
         @SuppressWarnings("unchecked")
         var prior = (CompletableFuture<V>) asyncCache.cache()
             .refreshes().putIfAbsent(keyReference, future);
@@ -58,6 +58,14 @@ interface LocalCache<K, V> extends ConcurrentMap<K, V> {
   /** Returns the {@link Ticker} used by this cache for statistics. */
   Ticker statsTicker();
 
+  /** Records the time that it took to load the entry's value, if used by the eviction policy. */
+  default void recordLoadCost(Object key, long loadTime) {}
+
+  /** Returns the keys that are remembered as absent, or null if negative caching is not used. */
+  default @Nullable BoundedNegativeCache<K> negativeCache() {
+    return null;
+  }
+
   /** See {@link Cache#estimatedSize()}. */
   long estimatedSize();
 
@@ -156,15 +164,18 @@ interface LocalCache<K, V> extends ConcurrentMap<K, V> {
   /** Decorates the remapping function to record statistics if enabled. */
   default <T, R> Function<? super T, ? extends R> statsAware(
       Function<? super T, ? extends R> mappingFunction, boolean recordLoad) {
+    Function<? super T, ? extends R> loader = recordLoad
+        ? CacheEvents.recordLoads(mappingFunction)
+        : mappingFunction;
     if (!isRecordingStats()) {
-      return mappingFunction;
+      return loader;
     }
     return key -> {
       R value;
       statsCounter().recordMisses(1);
       long startTime = statsTicker().read();
       try {
-        value = mappingFunction.apply(key);
+        value = loader.apply(key);
       } catch (RuntimeException | Error e) {
         statsCounter().recordLoadFailure(statsTicker().read() - startTime);
         throw e;
@@ -175,6 +186,7 @@ interface LocalCache<K, V> extends ConcurrentMap<K, V> {
           statsCounter().recordLoadFailure(loadTime);
         } else {
           statsCounter().recordLoadSuccess(loadTime);
+          recordLoadCost(key, loadTime);
         }
       }
       return value;
@@ -211,6 +223,7 @@ interface LocalCache<K, V> extends ConcurrentMap<K, V> {
           statsCounter().recordLoadFailure(loadTime);
         } else {
           statsCounter().recordLoadSuccess(loadTime);
+          recordLoadCost(t, loadTime);
         }
       }
       return result;
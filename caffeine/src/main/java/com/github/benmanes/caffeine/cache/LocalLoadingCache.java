@@ -55,7 +55,10 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
   @Override
   @SuppressWarnings("NullAway")
   default V get(K key) {
-    return cache().computeIfAbsent(key, mappingFunction());
+    var negatives = cache().negativeCache();
+    return (negatives == null)
+        ? cache().computeIfAbsent(key, mappingFunction())
+        : negatives.computeIfAbsent(cache(), key, mappingFunction());
   }
 
   @Override
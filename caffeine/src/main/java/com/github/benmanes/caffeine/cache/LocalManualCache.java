@@ -59,7 +59,10 @@ interface LocalManualCache<K, V> extends Cache<K, V> {
   @Override
   @SuppressWarnings("NullAway")
   default @Nullable V get(K key, Function<? super K, ? extends V> mappingFunction) {
-    return cache().computeIfAbsent(key, mappingFunction);
+    var negatives = cache().negativeCache();
+    return (negatives == null)
+        ? cache().computeIfAbsent(key, mappingFunction)
+        : negatives.computeIfAbsent(cache(), key, mappingFunction);
   }
 
   @Override
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * Calculates the weights of cache entries with a 64-bit range. This may be used when the entries
+ * are weighed by a precise unit, such as their size in bytes, that may exceed the range of an
+ * {@code int}. For example,
+ * <pre>{@code
+ *   Cache<Key, Blob> cache = Caffeine.newBuilder()
+ *       .maximumWeight(64L * 1024 * 1024 * 1024)
+ *       .weigher((LongWeigher<Key, Blob>) (key, blob) -> blob.sizeInBytes())
+ *       .build();
+ * }</pre>
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+@FunctionalInterface
+public interface LongWeigher<K, V> extends Weigher<K, V> {
+
+  /**
+   * Returns the weight of a cache entry. There is no unit for entry weights; rather they are simply
+   * relative to each other.
+   *
+   * @param key the key to weigh
+   * @param value the value to weigh
+   * @return the weight of the entry; must be non-negative and at most {@code Long.MAX_VALUE >>> 1}
+   */
+  @Override
+  @NonNegative
+  long weighLong(K key, V value);
+
+  /**
+   * Returns the weight of a cache entry, saturated to {@link Integer#MAX_VALUE} if it exceeds the
+   * range of an {@code int}.
+   *
+   * @param key the key to weigh
+   * @param value the value to weigh
+   * @return the weight of the entry, saturated to the range of an {@code int}
+   */
+  @Override
+  default @NonNegative int weigh(K key, V value) {
+    long weight = weighLong(key, value);
+    return (weight > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) Math.max(weight, -1);
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A small per-thread table of the hottest entries that is consulted before the shared hash table,
+ * so that a read of a popular key avoids the hash table probe and the read buffer. The hits are
+ * credited to the cache's statistics and eviction policy in batches.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class NearCache<K, V> {
+
+  /*
+   * Each thread has a direct-mapped table that holds references to the cache's nodes rather than
+   * copies of their values. A write updates the node's value in place, which is then observed by
+   * the next read through the table, and a removal, eviction, or replacement of the node marks it
+   * as no longer alive, which causes the table's slot to be ignored. This keeps the table coherent
+   * with the cache without a shared version counter that every write would have to contend on.
+   *
+   * An entry is admitted into a thread's table when a read through the hash table observes that
+   * its key's popularity, as estimated by the FrequencySketch, is at least the admission threshold
+   * and is greater than that of the entry occupying its slot. As estimating the popularity has a
+   * cost, only a sample of the reads that miss the table are considered. The sketch is read
+   * without holding the eviction lock, so an estimate may be stale, which only affects which of
+   * the hot entries is retained. The read tolerates the sketch being concurrently resized or
+   * restored, as it derives the table's mask from the table that it observed.
+   *
+   * A hit in the table is not offered to the read buffer. Instead, the number of hits is counted
+   * and, once the batch size is reached, the cache records them in its statistics and the entry is
+   * credited with a single access by the eviction policy. This moves the entry to the
+   * most-recently-used position so that it is not chosen as a victim while it is hot, but
+   * undercounts its frequency. That is acceptable because the frequency is only consulted when an
+   * entry is at the head of the probation queue, which an entry being credited regularly is not.
+   * The hits that are pending when a thread terminates are not recorded in the statistics.
+   *
+   * A thread-local's value is only released when its thread terminates or, after the thread-local
+   * itself is collected, when the thread happens to expunge the stale slot. A pooled thread would
+   * therefore retain its table, and the entries it references, long after the cache is discarded.
+   * Instead the thread-local holds its table weakly and the tables are strongly reachable only from
+   * the near cache, keyed weakly by their thread so that a terminated thread's table is dropped.
+   * A thread looks up its table once per read and passes it along. When the cache is cleared, the
+   * tables are emptied and released, and a table that is then collected is replaced on the thread's
+   * next read.
+   */
+
+  /** The number of hits of an entry in a thread's table before they are credited to the cache. */
+  static final int CREDIT_BATCH_SIZE = 16;
+  /** The minimum estimated popularity of an entry for it to be admitted into a thread's table. */
+  static final int ADMIT_FREQUENCY = 8;
+  /** The mask on a thread's count of table misses for sampling candidates; pow2 modulus. */
+  static final int SAMPLE_MASK = 16 - 1;
+
+  final ThreadLocal<@Nullable WeakReference<Table<K, V>>> tables;
+  final Map<Thread, Table<K, V>> owners;
+  final BoundedLocalCache<K, V> cache;
+  final int maximumSize;
+  final int length;
+
+  NearCache(BoundedLocalCache<K, V> cache, int maximumSize) {
+    this.owners = Collections.synchronizedMap(new WeakHashMap<>());
+    this.length = Caffeine.ceilingPowerOfTwo(maximumSize);
+    this.maximumSize = maximumSize;
+    this.tables = new ThreadLocal<>();
+    this.cache = cache;
+  }
+
+  /** Returns the current thread's table, creating it if necessary. */
+  Table<K, V> table() {
+    var ref = tables.get();
+    var table = (ref == null) ? null : ref.get();
+    if (table == null) {
+      table = new Table<>(length);
+      owners.put(Thread.currentThread(), table);
+      tables.set(new WeakReference<>(table));
+    }
+    return table;
+  }
+
+  /**
+   * Releases the threads' tables and discards the references to the entries that they hold. A
+   * thread continues to use its emptied table until it is collected and then allocates a new one.
+   */
+  void clear() {
+    synchronized (owners) {
+      for (var table : owners.values()) {
+        Arrays.fill(table.nodes, null);
+      }
+      owners.clear();
+    }
+  }
+
+  /**
+   * Returns the value associated with the key in the current thread's table, or null if it is not
+   * present.
+   *
+   * @param table the current thread's table
+   * @param key the key whose associated value is to be returned
+   * @param recordStats if the hit should be recorded in the cache's statistics
+   * @return the value for the key or null if not held by the current thread's table
+   */
+  @Nullable V getIfPresent(Table<K, V> table, Object key, boolean recordStats) {
+    int index = table.indexOf(key);
+    Node<K, V> node = table.nodes[index];
+    if (node == null) {
+      return null;
+    }
+    V value = node.getValue();
+    if ((value == null) || !node.isAlive() || !matches(node, key)) {
+      return null;
+    }
+
+    if (recordStats) {
+      table.hits[index]++;
+    }
+    if (++table.accesses[index] == CREDIT_BATCH_SIZE) {
+      credit(table, index);
+    }
+    return value;
+  }
+
+  /**
+   * Considers admitting the entry into the current thread's table after it was read from the
+   * hash table.
+   *
+   * @param table the current thread's table
+   * @param key the key that was read
+   * @param node the entry that was read
+   */
+  void offer(Table<K, V> table, Object key, Node<K, V> node) {
+    if ((++table.misses & SAMPLE_MASK) != 0) {
+      return;
+    }
+
+    int index = table.indexOf(key);
+    Node<K, V> occupant = table.nodes[index];
+    if (occupant == node) {
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    K candidateKey = (K) key;
+    int frequency = cache.frequencySketch().racyFrequency(candidateKey);
+    if (frequency < ADMIT_FREQUENCY) {
+      return;
+    } else if (occupant != null) {
+      K occupantKey = occupant.getKey();
+      if (occupant.isAlive() && (occupantKey != null)
+          && (cache.frequencySketch().racyFrequency(occupantKey) >= frequency)) {
+        return;
+      }
+      credit(table, index);
+    }
+    table.nodes[index] = node;
+  }
+
+  /** Credits the pending hits of the slot's entry to the cache. */
+  void credit(Table<K, V> table, int index) {
+    Node<K, V> node = table.nodes[index];
+    int hits = table.hits[index];
+    table.accesses[index] = 0;
+    table.hits[index] = 0;
+    if (node != null) {
+      cache.creditNearCacheHits(node, hits);
+    }
+  }
+
+  /** Returns if the node's key is equal to the key, using identity for weak keys. */
+  boolean matches(Node<K, V> node, Object key) {
+    Object nodeKey = node.getKey();
+    return (nodeKey == key) || (cache.isStrongKeys && key.equals(nodeKey));
+  }
+
+  /** A thread's direct-mapped table of entries and their pending hits. */
+  static final class Table<K, V> {
+    final Node<K, V>[] nodes;
+    final int[] accesses;
+    final int[] hits;
+    final int mask;
+
+    int misses;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    Table(int length) {
+      nodes = new Node[length];
+      accesses = new int[length];
+      hits = new int[length];
+      mask = length - 1;
+    }
+
+    int indexOf(Object key) {
+      return FrequencySketch.spread(key.hashCode()) & mask;
+    }
+  }
+}
@@ -67,24 +67,24 @@ abstract class Node<K, V> implements AccessOrder<Node<K, V>>, WriteOrder<Node<K,
   /** Returns the weight of this entry from the entry's perspective. */
   @NonNegative
   @GuardedBy("this")
-  public int getWeight() {
+  public long getWeight() {
     return 1;
   }
 
   /** Sets the weight from the entry's perspective. */
   @GuardedBy("this")
-  public void setWeight(@NonNegative int weight) {}
+  public void setWeight(@NonNegative long weight) {}
 
   /** Returns the weight of this entry from the policy's perspective. */
   @NonNegative
   // @GuardedBy("evictionLock")
-  public int getPolicyWeight() {
+  public long getPolicyWeight() {
     return 1;
   }
 
   /** Sets the weight from the policy's perspective. */
   // @GuardedBy("evictionLock")
-  public void setPolicyWeight(@NonNegative int weight) {}
+  public void setPolicyWeight(@NonNegative long weight) {}
 
   /* --------------- Health --------------- */
 
@@ -17,6 +17,8 @@ package com.github.benmanes.caffeine.cache;
 
 import static com.github.benmanes.caffeine.cache.Caffeine.toNanosSaturated;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ConcurrentModificationException;
 import java.util.Map;
@@ -33,6 +35,8 @@ import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.nullness.qual.PolyNull;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 /**
  * An access point for inspecting and performing low-level operations based on the cache's runtime
  * characteristics. These operations are optional and dependent on how the cache was constructed
@@ -151,6 +155,73 @@ public interface Policy<K, V> {
    */
   Optional<FixedRefresh<K, V>> refreshAfterWrite();
 
+  /**
+   * Returns a snapshot of the cache's internal metrics. These describe the work performed by the
+   * cache to maintain its policies, such as the buffering of reads and writes, the maintenance
+   * runs that replay them, and the adaptive sizing of the eviction policy's regions. The snapshot
+   * is captured atomically with respect to the maintenance work, but does not block readers or
+   * writers.
+   * <p>
+   * A metric that does not apply to this cache's configuration, such as the eviction regions of
+   * an unbounded cache, is reported as zero.
+   *
+   * @return a snapshot of the cache's internal metrics
+   */
+  default Metrics metrics() {
+    // This method was added & implemented in version 3.2.0
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Returns access to the statistics of the load coalescing policy. This policy groups the misses
+   * of an {@link AsyncLoadingCache} that occur within a short delay into a single bulk load.
+   * <p>
+   * If the cache was not constructed with load coalescing or the implementation does not support
+   * these operations, an empty {@link Optional} is returned.
+   *
+   * @return access to the statistics of this cache if a load coalescing policy is used
+   */
+  default Optional<CoalescedLoads> coalescedLoads() {
+    // This method was added & implemented in version 3.2.0
+    return Optional.empty();
+  }
+
+  /**
+   * Returns access to the keys that the cache remembers as absent. These keys were recorded when
+   * the loader or mapping function returned {@code null} and are held apart from the cache's
+   * entries, with their own maximum size and expiration.
+   * <p>
+   * If the cache was not constructed with negative caching or the implementation does not support
+   * these operations, an empty {@link Optional} is returned.
+   *
+   * @return access to the absent keys of this cache if negative caching is used
+   */
+  default Optional<NegativeCache<K>> negativeCache() {
+    // This method was added & implemented in version 3.2.0
+    return Optional.empty();
+  }
+
+  /**
+   * Returns an estimate of the keys that were accessed most frequently in the recent workload,
+   * ordered from the most to the least frequent. The keys include those that were recently loaded
+   * but are no longer present in the cache. Each count is an estimate that may exceed the key's
+   * true number of occurrences.
+   * <p>
+   * Obtaining the estimate requires the cache to replay its pending reads and is an
+   * <i>O(n lg n)</i> operation in the number of monitored keys.
+   *
+   * @param limit the maximum number of keys to return
+   * @return an unmodifiable snapshot of the most frequently accessed keys and their estimated
+   *         number of occurrences
+   * @throws IllegalArgumentException if the limit is negative
+   * @throws UnsupportedOperationException if the cache was not constructed to track heavy hitters
+   *         or the implementation does not support this operation
+   */
+  default Map<K, Long> heavyHitters(@NonNegative int limit) {
+    // This method was added & implemented in version 3.2.0
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * The low-level operations for a cache with a size-based eviction policy.
    *
@@ -176,6 +247,22 @@ public interface Policy<K, V> {
      */
     OptionalInt weightOf(K key);
 
+    /**
+     * Returns the weight of the entry with a 64-bit range. If this cache does not use a weighted
+     * size bound or does not support querying for the entry's weight, then the
+     * {@link OptionalLong} will be empty. Unlike {@link #weightOf}, this value is not saturated
+     * when the entry was weighed by a {@link Weigher#weighLong} that exceeds the range of an
+     * {@code int}.
+     *
+     * @param key the key for the entry being queried
+     * @return the weight if the entry is present in the cache
+     * @throws NullPointerException if the specified key is null
+     */
+    default OptionalLong weightOfLong(K key) {
+      // This method was added & implemented in version 3.2.0
+      throw new UnsupportedOperationException();
+    }
+
     /**
      * Returns the approximate accumulated weight of entries in this cache. If this cache does not
      * use a weighted size bound, then the {@link OptionalLong} will be empty.
@@ -337,6 +424,48 @@ public interface Policy<K, V> {
       // This method was added & implemented in version 3.0.6
       throw new UnsupportedOperationException();
     }
+
+    /**
+     * Writes a snapshot of the hottest entries to the file so that a new cache may be warmed by
+     * {@link #readSnapshot(Path)}. The snapshot includes up to {@code limit} entries in the order
+     * of {@link #hottest(int)}, the age and remaining lifetime of each entry so that its expiration
+     * and refresh schedules are preserved, and the eviction policy's frequency history. The file is
+     * created if it does not exist, or else it is truncated.
+     * <p>
+     * The keys and values are written using Java serialization and must be
+     * {@link java.io.Serializable}. The frequency history is only meaningful to a cache whose keys
+     * have a {@link Object#hashCode()} that is stable across instances of the application, such as
+     * strings and numbers. Beware that the entries are captured within the eviction policy's
+     * exclusive lock, but are written to the file after the lock has been released.
+     *
+     * @param path the file to write the snapshot to
+     * @param limit the maximum number of entries to include in the snapshot
+     * @return the number of entries written to the snapshot
+     * @throws IllegalArgumentException if the limit is negative
+     * @throws IOException if an I/O error occurs, such as when an entry is not serializable
+     */
+    default int writeSnapshot(Path path, @NonNegative int limit) throws IOException {
+      // This method was added & implemented in version 3.2.0
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Populates the cache with the entries and frequency history from a snapshot written by
+     * {@link #writeSnapshot(Path, int)}. The file is memory mapped while it is read. An entry is
+     * skipped if it has expired since the snapshot was taken or if the key is already present in
+     * this cache. The frequency history is only restored if it is compatible with this cache's
+     * maximum size.
+     * <p>
+     * Beware that the entries are read using Java serialization, so the file must be trusted.
+     *
+     * @param path the file to read the snapshot from
+     * @return the number of entries restored to this cache
+     * @throws IOException if an I/O error occurs or the file is not a valid snapshot
+     */
+    default int readSnapshot(Path path) throws IOException {
+      // This method was added & implemented in version 3.2.0
+      throw new UnsupportedOperationException();
+    }
   }
 
   /**
@@ -853,6 +982,187 @@ public interface Policy<K, V> {
     }
   }
 
+  /**
+   * A snapshot of the internal metrics of a cache. The counts are cumulative since the cache was
+   * created, while the sizes reflect the state at the time that the snapshot was captured.
+   */
+  interface Metrics {
+
+    /** Returns the number of reads that were recorded into the read buffer or dropped. */
+    @NonNegative
+    long readBufferOffers();
+
+    /**
+     * Returns the number of reads that were not recorded because the read buffer was full or
+     * contended. A dropped read is not used to update the eviction policy.
+     */
+    @NonNegative
+    long readBufferDrops();
+
+    /** Returns the number of reads that were drained from the read buffer into the policy. */
+    @NonNegative
+    long readBufferDrains();
+
+    /** Returns the number of writes waiting in the write buffer to be applied to the policy. */
+    @NonNegative
+    long writeBufferSize();
+
+    /** Returns the maximum number of writes that the write buffer can hold. */
+    @NonNegative
+    long writeBufferCapacity();
+
+    /** Returns the number of times that the maintenance work was performed. */
+    @NonNegative
+    long maintenanceCount();
+
+    /** Returns the total number of nanoseconds spent performing the maintenance work. */
+    @NonNegative
+    long maintenanceTime();
+
+    /** Returns the weighted size of the admission window. */
+    @NonNegative
+    long windowWeightedSize();
+
+    /** Returns the maximum weighted size of the admission window. */
+    @NonNegative
+    long windowMaximum();
+
+    /** Returns the weighted size of the main space's probation region. */
+    @NonNegative
+    long probationWeightedSize();
+
+    /** Returns the weighted size of the main space's protected region. */
+    @NonNegative
+    long protectedWeightedSize();
+
+    /** Returns the maximum weighted size of the main space's protected region. */
+    @NonNegative
+    long protectedMaximum();
+
+    /**
+     * Returns the hill climber's current step size, which is the amount that the admission window
+     * will be resized by if the hit rate continues to improve.
+     */
+    double stepSize();
+
+    /** Returns the hill climber's pending adjustment to the admission window's maximum size. */
+    long adjustment();
+
+    /** Returns the number of timer wheel buckets that hold at least one entry. */
+    @NonNegative
+    int timerWheelOccupancy();
+
+    /** Returns the number of refreshes that are in-flight. */
+    @NonNegative
+    int pendingRefreshes();
+  }
+
+  /**
+   * The statistics for a cache that coalesces its individual loads into bulk loads. The counts are
+   * cumulative since the cache was created and are updated when a batch completes.
+   */
+  interface CoalescedLoads {
+
+    /** Returns the maximum number of keys that are loaded in a single batch. */
+    @NonNegative
+    int maximumBatchSize();
+
+    /** Returns the maximum length of time that a batch waits for additional keys. */
+    Duration maximumDelay();
+
+    /** Returns the number of batches that were dispatched to the bulk loader and completed. */
+    @NonNegative
+    long batchCount();
+
+    /** Returns the number of keys that were loaded by the completed batches. */
+    @NonNegative
+    long keyCount();
+
+    /**
+     * Returns the total number of nanoseconds that the completed batches spent loading, measured
+     * from when the bulk load was dispatched until its future completed.
+     */
+    @NonNegative
+    long totalLoadTime();
+
+    /**
+     * Returns the average number of keys per batch, or {@code 0.0} if no batch has completed.
+     *
+     * @return the average number of keys loaded by a single batch
+     */
+    @NonNegative
+    default double averageBatchSize() {
+      long batches = batchCount();
+      return (batches == 0) ? 0.0 : (double) keyCount() / batches;
+    }
+
+    /**
+     * Returns the average number of nanoseconds spent loading a batch, or {@code 0.0} if no batch
+     * has completed.
+     *
+     * @return the average time spent loading a single batch
+     */
+    @NonNegative
+    default double averageLoadPenalty() {
+      long batches = batchCount();
+      return (batches == 0) ? 0.0 : (double) totalLoadTime() / batches;
+    }
+  }
+
+  /**
+   * The keys that a cache remembers as absent, so that a lookup does not invoke the loader.
+   *
+   * @param <K> the type of keys
+   */
+  interface NegativeCache<K> {
+
+    /** Returns the maximum number of absent keys that may be remembered. */
+    @NonNegative
+    long maximumSize();
+
+    /** Returns the length of time after an absent key is recorded that it is forgotten. */
+    Duration expiresAfter();
+
+    /**
+     * Returns the approximate number of absent keys that are remembered. The value returned is an
+     * estimate, as in {@link Cache#estimatedSize()}.
+     *
+     * @return the estimated number of absent keys
+     */
+    @NonNegative
+    long estimatedSize();
+
+    /**
+     * Returns whether the key is remembered as absent. This method does not record any statistics.
+     *
+     * @param key the key whose absence is to be tested
+     * @return {@code true} if the cache considers the key to be absent
+     * @throws NullPointerException if the specified key is null
+     */
+    boolean contains(K key);
+
+    /**
+     * Forgets that the key is absent, so that the next lookup invokes the loader.
+     *
+     * @param key the key to forget
+     * @throws NullPointerException if the specified key is null
+     */
+    void invalidate(K key);
+
+    /** Forgets all of the absent keys. */
+    void invalidateAll();
+
+    /**
+     * Returns a snapshot of the statistics of the lookups that consulted the absent keys, if the
+     * cache records statistics. A hit is a lookup that was answered as absent without invoking the
+     * loader and a miss is a lookup that continued to the cache's entries. These lookups are not
+     * included in {@link Cache#stats()}.
+     *
+     * @return the current snapshot of the statistics of the absent keys
+     */
+    CacheStats stats();
+  }
+
   /**
    * A key-value pair that may include policy metadata for the cached entry. Unless otherwise
    * specified, this is a value-based class, it can be assumed that the implementation is an
@@ -872,6 +1182,18 @@ public interface Policy<K, V> {
      */
     int weight();
 
+    /**
+     * Returns the entry's weight with a 64-bit range. If the cache was not configured with a
+     * maximum weight then this value is always {@code 1}. Unlike {@link #weight()}, this value is
+     * not saturated when the entry was weighed by a {@link Weigher#weighLong} that exceeds the
+     * range of an {@code int}.
+     *
+     * @return the weight if the entry
+     */
+    default long weightLong() {
+      return weight();
+    }
+
     /**
      * Returns the {@link Ticker#read()} ticks for when this entry expires. If the cache was not
      * configured with an expiration policy then this value is roughly {@link Long#MAX_VALUE}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import com.github.benmanes.caffeine.cache.Policy.Metrics;
+
+/**
+ * An immutable snapshot of a cache's internal metrics. The fields are assigned by the cache while
+ * capturing the snapshot and are not modified after it has been returned.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class PolicyMetrics implements Metrics {
+  long readBufferOffers;
+  long readBufferDrops;
+  long readBufferDrains;
+  long writeBufferSize;
+  long writeBufferCapacity;
+  long maintenanceCount;
+  long maintenanceTime;
+  long windowWeightedSize;
+  long windowMaximum;
+  long probationWeightedSize;
+  long protectedWeightedSize;
+  long protectedMaximum;
+  double stepSize;
+  long adjustment;
+  int timerWheelOccupancy;
+  int pendingRefreshes;
+
+  @Override public long readBufferOffers() {
+    return readBufferOffers;
+  }
+  @Override public long readBufferDrops() {
+    return readBufferDrops;
+  }
+  @Override public long readBufferDrains() {
+    return readBufferDrains;
+  }
+  @Override public long writeBufferSize() {
+    return writeBufferSize;
+  }
+  @Override public long writeBufferCapacity() {
+    return writeBufferCapacity;
+  }
+  @Override public long maintenanceCount() {
+    return maintenanceCount;
+  }
+  @Override public long maintenanceTime() {
+    return maintenanceTime;
+  }
+  @Override public long windowWeightedSize() {
+    return windowWeightedSize;
+  }
+  @Override public long windowMaximum() {
+    return windowMaximum;
+  }
+  @Override public long probationWeightedSize() {
+    return probationWeightedSize;
+  }
+  @Override public long protectedWeightedSize() {
+    return protectedWeightedSize;
+  }
+  @Override public long protectedMaximum() {
+    return protectedMaximum;
+  }
+  @Override public double stepSize() {
+    return stepSize;
+  }
+  @Override public long adjustment() {
+    return adjustment;
+  }
+  @Override public int timerWheelOccupancy() {
+    return timerWheelOccupancy;
+  }
+  @Override public int pendingRefreshes() {
+    return pendingRefreshes;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + '{'
+        + "readBufferOffers=" + readBufferOffers + ", "
+        + "readBufferDrops=" + readBufferDrops + ", "
+        + "readBufferDrains=" + readBufferDrains + ", "
+        + "writeBufferSize=" + writeBufferSize + ", "
+        + "writeBufferCapacity=" + writeBufferCapacity + ", "
+        + "maintenanceCount=" + maintenanceCount + ", "
+        + "maintenanceTime=" + maintenanceTime + ", "
+        + "windowWeightedSize=" + windowWeightedSize + ", "
+        + "windowMaximum=" + windowMaximum + ", "
+        + "probationWeightedSize=" + probationWeightedSize + ", "
+        + "protectedWeightedSize=" + protectedWeightedSize + ", "
+        + "protectedMaximum=" + protectedMaximum + ", "
+        + "stepSize=" + stepSize + ", "
+        + "adjustment=" + adjustment + ", "
+        + "timerWheelOccupancy=" + timerWheelOccupancy + ", "
+        + "pendingRefreshes=" + pendingRefreshes + '}';
+  }
+}
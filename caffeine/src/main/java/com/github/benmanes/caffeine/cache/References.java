@@ -135,6 +135,56 @@ final class References {
     }
   }
 
+  /**
+   * A reusable adapter used for looking up an entry in the cache where the keys are weakly held and
+   * compared by identity. A lookup by identity does not call into user code, so a thread's probe is
+   * never in use by two lookups at once. The probe must be cleared after each lookup so that it
+   * does not strongly hold the key.
+   */
+  static final class LookupKeyProbe implements InternalReference<Object> {
+    static final ThreadLocal<LookupKeyProbe> PROBES = ThreadLocal.withInitial(LookupKeyProbe::new);
+
+    private @Nullable Object key;
+    private int hashCode;
+
+    /** Sets the key to be looked up. */
+    void set(Object key) {
+      this.hashCode = System.identityHashCode(key);
+      this.key = requireNonNull(key);
+    }
+
+    /** Releases the key after the lookup. */
+    void clear() {
+      key = null;
+    }
+
+    @Override
+    public @Nullable Object get() {
+      return key;
+    }
+
+    @Override
+    public Object getKeyReference() {
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      return referenceEquals(object);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(US,
+          "%s{key=%s, hashCode=%d}", getClass().getSimpleName(), get(), hashCode);
+    }
+  }
+
   /**
    * A short-lived adapter used for looking up an entry in the cache where the keys are weakly held.
    * This {@linkplain InternalReference} implementation is not suitable for storing in the cache as
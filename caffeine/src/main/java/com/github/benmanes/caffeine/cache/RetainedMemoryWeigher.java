@@ -0,0 +1,312 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A weigher that estimates the number of bytes retained by an entry, which is the sum of the
+ * object graphs that are reachable from the key and value plus the cache's per-entry overhead.
+ * The estimate is computed once when the entry is written, using a model of the object layout that
+ * is cached per class.
+ *
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+final class RetainedMemoryWeigher implements LongWeigher<Object, Object>, Serializable {
+  private static final long serialVersionUID = 1;
+
+  /*
+   * The object layout follows the HotSpot conventions for a 64-bit JVM, where references and class
+   * pointers are compressed when the heap is smaller than 32 GiB. An object's shallow size is its
+   * header plus its instance fields, including those of its superclasses, rounded up to the 8-byte
+   * alignment. This disregards field packing into the header's gap and padding between the
+   * superclass fields, so an object's size may be slightly overestimated.
+   *
+   * The object graph is traversed by reading the reference fields reflectively, which is only
+   * permitted for classes in packages that are open to this module, such as the application's
+   * classes on the classpath. Strings and arrays are estimated from their length, where a string's
+   * encoding is inferred from a sample of its characters. A collection or map is not iterated, as
+   * iterating over a user's collection may fail due to a concurrent modification or have side
+   * effects, such as loading a lazy collection. Instead, the first element of a JDK list that
+   * supports random access is visited and the others are assumed to have its shallow size, and any
+   * other collection or map assumes that each of its elements, keys, and values is the smallest
+   * possible object. Other classes of a named module are counted by their shallow size alone.
+   * Classes and enum constants are shared by definition and are not counted, but any other object
+   * that is shared by multiple entries is counted by each of them.
+   *
+   * The weigher is evaluated while the hash table's lock for the entry is held, so the traversal
+   * visits only a small number of objects, after which each object that remains to be visited is
+   * assumed to be the smallest possible object. If a user's type fails while being inspected then
+   * the entry is estimated by the shallow size of its key and value.
+   *
+   * As the objects that are not visited are extrapolated from a sample or from the smallest
+   * possible object, the graph of an entry that is larger than the traversal's budget, or whose
+   * collections hold objects of varying sizes, is likely to be underestimated. The estimate is
+   * therefore a lower bound of the retained memory in practice rather than an upper bound.
+   */
+
+  /** The maximum number of objects that are visited when estimating an entry. */
+  static final int MAXIMUM_OBJECTS = 128;
+  /** The number of characters that are sampled to estimate a string's encoding. */
+  static final int STRING_SAMPLES = 16;
+  /** Whether the JVM is assumed to use compressed references. */
+  static final boolean COMPRESSED_REFERENCES = Runtime.getRuntime().maxMemory() < (32L << 30);
+  /** The size of a reference. */
+  static final int REFERENCE_SIZE = COMPRESSED_REFERENCES ? 4 : 8;
+  /** The size of an object's header. */
+  static final int OBJECT_HEADER_SIZE = COMPRESSED_REFERENCES ? 12 : 16;
+  /** The size of an array's header, including its length. */
+  static final int ARRAY_HEADER_SIZE = COMPRESSED_REFERENCES ? 16 : 24;
+  /** The size of the smallest object, which has a header and no fields. */
+  static final long MINIMUM_OBJECT_SIZE = align(OBJECT_HEADER_SIZE);
+  /** The size of a ConcurrentHashMap or HashMap node, which has a hash and three references. */
+  static final long HASH_NODE_SIZE = align(OBJECT_HEADER_SIZE + 4 + (3L * REFERENCE_SIZE));
+
+  static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+    @Override protected Layout computeValue(Class<?> type) {
+      return new Layout(type);
+    }
+  };
+
+  final long entryOverhead;
+
+  RetainedMemoryWeigher(long entryOverhead) {
+    this.entryOverhead = entryOverhead;
+  }
+
+  /**
+   * Returns a weigher that includes the overhead of the cache's entry, which is the node created
+   * by the factory, its slot in the hash table, and the future that holds an asynchronous value.
+   */
+  RetainedMemoryWeigher withEntryOverhead(NodeFactory<?, ?> nodeFactory, boolean isAsync) {
+    long overhead = LAYOUTS.get(nodeFactory.getClass()).shallowSize
+        + HASH_NODE_SIZE + REFERENCE_SIZE;
+    if (isAsync) {
+      overhead += LAYOUTS.get(CompletableFuture.class).shallowSize;
+    }
+    return new RetainedMemoryWeigher(overhead);
+  }
+
+  @Override
+  public long weighLong(Object key, Object value) {
+    try {
+      return entryOverhead + sizeOf(key, value);
+    } catch (RuntimeException e) {
+      return entryOverhead + shallowSizeOf(key) + shallowSizeOf(value);
+    }
+  }
+
+  /** Returns the shallow size of the object, or of an empty object if it cannot be determined. */
+  static long shallowSizeOf(Object o) {
+    try {
+      return LAYOUTS.get(o.getClass()).shallowSize;
+    } catch (RuntimeException e) {
+      return MINIMUM_OBJECT_SIZE;
+    }
+  }
+
+  /** Returns the estimated number of bytes retained by the object graphs of the roots. */
+  static long sizeOf(Object... roots) {
+    Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    var pending = new ArrayDeque<Object>();
+    for (Object root : roots) {
+      enqueue(pending, root);
+    }
+
+    long size = 0;
+    while (!pending.isEmpty() && (visited.size() < MAXIMUM_OBJECTS)) {
+      Object o = pending.poll();
+      if (visited.add(o)) {
+        size += visit(o, pending);
+      }
+    }
+    for (Object o : pending) {
+      if (!visited.contains(o)) {
+        size += MINIMUM_OBJECT_SIZE;
+      }
+    }
+    return size;
+  }
+
+  /** Returns the shallow size of the object and adds its referents to the pending objects. */
+  static long visit(Object o, ArrayDeque<Object> pending) {
+    Class<?> type = o.getClass();
+    if (type.isArray()) {
+      if (!type.getComponentType().isPrimitive()) {
+        for (Object element : (Object[]) o) {
+          enqueue(pending, element);
+        }
+      }
+      return sizeOfArray(o);
+    }
+
+    Layout layout = LAYOUTS.get(type);
+    if (o instanceof String) {
+      return layout.shallowSize + sizeOfValue((String) o);
+    } else if (o instanceof Map<?, ?>) {
+      int size = ((Map<?, ?>) o).size();
+      return layout.shallowSize + (size * (HASH_NODE_SIZE + 2 * MINIMUM_OBJECT_SIZE))
+          + align(ARRAY_HEADER_SIZE + ((long) Caffeine.ceilingPowerOfTwo(
+              Caffeine.calculateHashMapCapacity(size)) * REFERENCE_SIZE));
+    } else if (o instanceof Collection<?>) {
+      var collection = (Collection<?>) o;
+      int size = collection.size();
+      long elements = (o instanceof Set<?>)
+          ? HASH_NODE_SIZE * size
+          : align(ARRAY_HEADER_SIZE + ((long) size * REFERENCE_SIZE));
+      return layout.shallowSize + elements + sizeOfElements(collection, size, pending);
+    } else if (layout.fields == null) {
+      return layout.shallowSize;
+    }
+
+    for (Field field : layout.fields) {
+      try {
+        enqueue(pending, field.get(o));
+      } catch (IllegalAccessException e) {
+        // The field was made accessible when the layout was created
+      }
+    }
+    return layout.shallowSize;
+  }
+
+  /**
+   * Returns the estimated size of the collection's elements without iterating over it. The first
+   * element of a JDK list that supports random access is visited and the others are assumed to have
+   * its shallow size, and otherwise each element is assumed to be the smallest possible object.
+   */
+  static long sizeOfElements(Collection<?> collection, int size, ArrayDeque<Object> pending) {
+    if ((size > 0) && (collection instanceof List<?>) && (collection instanceof RandomAccess)
+        && (collection.getClass().getModule() == Object.class.getModule())) {
+      Object first = ((List<?>) collection).get(0);
+      if (first != null) {
+        enqueue(pending, first);
+        return (size - 1) * sizeOfElement(first);
+      }
+    }
+    return size * MINIMUM_OBJECT_SIZE;
+  }
+
+  /** Returns the shallow size of an element that is assumed to be representative of the others. */
+  static long sizeOfElement(Object o) {
+    if ((o instanceof Class<?>) || (o instanceof Enum<?>)) {
+      return 0;
+    } else if (o.getClass().isArray()) {
+      return sizeOfArray(o);
+    } else if (o instanceof String) {
+      return LAYOUTS.get(String.class).shallowSize + sizeOfValue((String) o);
+    }
+    return LAYOUTS.get(o.getClass()).shallowSize;
+  }
+
+  /** Returns the size of the array, excluding the objects that its elements refer to. */
+  static long sizeOfArray(Object array) {
+    Class<?> componentType = array.getClass().getComponentType();
+    long length = java.lang.reflect.Array.getLength(array);
+    int elementSize = componentType.isPrimitive() ? primitiveSize(componentType) : REFERENCE_SIZE;
+    return align(ARRAY_HEADER_SIZE + (length * elementSize));
+  }
+
+  /** Returns the size of the string's character array, inferring its encoding from a sample. */
+  static long sizeOfValue(String s) {
+    int length = s.length();
+    int step = Math.max(1, length / STRING_SAMPLES);
+    for (int i = 0; i < length; i += step) {
+      if (s.charAt(i) > 0xFF) {
+        return align(ARRAY_HEADER_SIZE + (2L * length));
+      }
+    }
+    return align(ARRAY_HEADER_SIZE + length);
+  }
+
+  /** Adds the object to be visited unless it is shared by definition. */
+  static void enqueue(ArrayDeque<Object> pending, @Nullable Object o) {
+    if ((o != null) && !(o instanceof Class<?>) && !(o instanceof Enum<?>)) {
+      pending.add(o);
+    }
+  }
+
+  /** Returns the size rounded up to the object alignment. */
+  static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+
+  /** Returns the number of bytes used by a field or array element of the primitive type. */
+  static int primitiveSize(Class<?> type) {
+    if ((type == long.class) || (type == double.class)) {
+      return 8;
+    } else if ((type == int.class) || (type == float.class)) {
+      return 4;
+    } else if ((type == short.class) || (type == char.class)) {
+      return 2;
+    }
+    return 1;
+  }
+
+  /** The shallow size of a class's instances and the reference fields that can be traversed. */
+  static final class Layout {
+    final Field @Nullable [] fields;
+    final long shallowSize;
+
+    @SuppressForbidden(reason = "Reads the fields of the classes that are open to this module, "
+        + "as the retained memory cannot be estimated from their public state")
+    Layout(Class<?> type) {
+      long size = OBJECT_HEADER_SIZE;
+      boolean accessible = isOpen(type);
+      List<Field> references = new ArrayList<>();
+      for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+        accessible &= isOpen(c);
+        for (Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers())) {
+            continue;
+          } else if (field.getType().isPrimitive()) {
+            size += primitiveSize(field.getType());
+          } else {
+            size += REFERENCE_SIZE;
+            references.add(field);
+          }
+        }
+      }
+      if (accessible) {
+        for (Field field : references) {
+          accessible &= field.trySetAccessible();
+        }
+      }
+      this.fields = accessible ? references.toArray(new Field[0]) : null;
+      this.shallowSize = align(size);
+    }
+
+    /** Returns if the class's private fields may be read reflectively by this module. */
+    static boolean isOpen(Class<?> type) {
+      Module module = type.getModule();
+      return !module.isNamed()
+          || module.isOpen(type.getPackageName(), Layout.class.getModule());
+    }
+  }
+}
@@ -38,11 +38,21 @@ final class SerializationProxy<K, V> implements Serializable {
   boolean weakValues;
   boolean softValues;
   boolean isRecordingStats;
+  boolean missCostAware;
   long refreshAfterWriteNanos;
+  double earlyRefreshBeta;
   long expiresAfterWriteNanos;
   long expiresAfterAccessNanos;
+  long coalesceMaximumDelayNanos;
+  int coalesceMaximumBatchSize;
+  long refreshCoalesceMaximumDelayNanos;
+  int refreshCoalesceMaximumBatchSize;
   long maximumSize = UNSET_INT;
   long maximumWeight = UNSET_INT;
+  long negativeMaximumSize = UNSET_INT;
+  long negativeExpireAfterWriteNanos;
+  int nearCacheMaximumSize = UNSET_INT;
+  int heavyHittersCapacity = UNSET_INT;
 
   @Nullable Ticker ticker;
   @Nullable Expiry<?, ?> expiry;
@@ -59,6 +69,9 @@ final class SerializationProxy<K, V> implements Serializable {
     if (isRecordingStats) {
       builder.recordStats();
     }
+    if (missCostAware) {
+      builder.missCostAware();
+    }
     if (maximumSize != UNSET_INT) {
       builder.maximumSize(maximumSize);
     }
@@ -80,6 +93,25 @@ final class SerializationProxy<K, V> implements Serializable {
     if (refreshAfterWriteNanos > 0) {
       builder.refreshAfterWrite(Duration.ofNanos(refreshAfterWriteNanos));
     }
+    if (earlyRefreshBeta > 0) {
+      builder.earlyRefresh(earlyRefreshBeta);
+    }
+    if (refreshCoalesceMaximumBatchSize > 0) {
+      builder.coalesceRefreshes(refreshCoalesceMaximumBatchSize,
+          Duration.ofNanos(refreshCoalesceMaximumDelayNanos));
+    }
+    if (negativeMaximumSize != UNSET_INT) {
+      builder.negativeCaching(negativeMaximumSize, Duration.ofNanos(negativeExpireAfterWriteNanos));
+    }
+    if (nearCacheMaximumSize != UNSET_INT) {
+      builder.nearCache(nearCacheMaximumSize);
+    }
+    if (heavyHittersCapacity != UNSET_INT) {
+      builder.trackHeavyHitters(heavyHittersCapacity);
+    }
+    if (coalesceMaximumBatchSize > 0) {
+      builder.coalesceLoads(coalesceMaximumBatchSize, Duration.ofNanos(coalesceMaximumDelayNanos));
+    }
     if (weakKeys) {
       builder.weakKeys();
     }
@@ -82,7 +82,7 @@ class SnapshotEntry<K, V> implements CacheEntry<K, V> {
 
   /** Returns a cache entry with the specified metadata. */
   public static <K, V> SnapshotEntry<K, V> forEntry(K key, V value,
-      long snapshot, int weight, long expiresAt, long refreshableAt) {
+      long snapshot, long weight, long expiresAt, long refreshableAt) {
     long unsetTicks = snapshot + Long.MAX_VALUE;
     boolean refresh = (refreshableAt != unsetTicks);
     boolean expires = (expiresAt != unsetTicks);
@@ -103,13 +103,16 @@ class SnapshotEntry<K, V> implements CacheEntry<K, V> {
   }
 
   static class WeightedEntry<K, V> extends SnapshotEntry<K, V> {
-    final int weight;
+    final long weight;
 
-    WeightedEntry(K key, V value, long snapshot, int weight) {
+    WeightedEntry(K key, V value, long snapshot, long weight) {
       super(key, value, snapshot);
       this.weight = weight;
     }
     @Override public int weight() {
+      return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+    @Override public long weightLong() {
       return weight;
     }
   }
@@ -129,7 +132,7 @@ class SnapshotEntry<K, V> implements CacheEntry<K, V> {
   static class ExpirableWeightedEntry<K, V> extends WeightedEntry<K, V> {
     final long expiresAt;
 
-    ExpirableWeightedEntry(K key, V value, long snapshot, int weight, long expiresAt) {
+    ExpirableWeightedEntry(K key, V value, long snapshot, long weight, long expiresAt) {
       super(key, value, snapshot, weight);
       this.expiresAt = expiresAt;
     }
@@ -153,7 +156,7 @@ class SnapshotEntry<K, V> implements CacheEntry<K, V> {
   static final class CompleteEntry<K, V> extends ExpirableWeightedEntry<K, V> {
     final long refreshableAt;
 
-    CompleteEntry(K key, V value, long snapshot, int weight, long expiresAt, long refreshableAt) {
+    CompleteEntry(K key, V value, long snapshot, long weight, long expiresAt, long refreshableAt) {
       super(key, value, snapshot, weight, expiresAt);
       this.refreshableAt = refreshableAt;
     }
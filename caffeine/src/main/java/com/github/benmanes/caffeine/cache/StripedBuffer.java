@@ -25,6 +25,7 @@ import static com.github.benmanes.caffeine.cache.Caffeine.ceilingPowerOfTwo;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -79,9 +80,16 @@ abstract class StripedBuffer<E> implements Buffer<E> {
    *
    * It is possible for a Buffer to become unused when threads that once hashed to it terminate, as
    * well as in the case where doubling the table causes no thread to hash to it under expanded
-   * mask. We do not try to detect or remove buffers, under the assumption that for long-running
-   * instances, observed contention levels will recur, so the buffers will eventually be needed
-   * again; and for short-lived ones, it does not matter.
+   * mask. Unlike Striped64, the consumer periodically sweeps the table to release the buffers that
+   * were not written to since its previous sweep, as a cache may have many buffers that were sized
+   * for a burst of contention that does not recur. A sweep is performed after a number of drains or
+   * by the first drain after a time interval has elapsed, so that a cache that became idle releases
+   * its buffers once it is next maintained. A released slot is lazily repopulated if a
+   * producer hashes to it again. A producer that raced with the release may add its element to the
+   * detached buffer, where it will not be consumed, which is acceptable for a lossy buffer.
+   *
+   * The table's capacity is derived from Runtime.availableProcessors(), which respects the
+   * container's CPU quota when running under a cgroup.
    */
 
   static final VarHandle TABLE_BUSY;
@@ -95,12 +103,31 @@ abstract class StripedBuffer<E> implements Buffer<E> {
   /** The maximum number of attempts when trying to expand the table. */
   static final int ATTEMPTS = 3;
 
+  /** The number of drains between sweeps for buffers that can be released. */
+  static final int SWEEP_INTERVAL = 1 << 10;
+
+  /** The elapsed time after which the next drain sweeps for buffers that can be released. */
+  static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
   /** Table of buffers. When non-null, size is a power of 2. */
   volatile Buffer<E> @Nullable[] table;
 
   /** Spinlock (locked via CAS) used when resizing and/or creating Buffers. */
   volatile int tableBusy;
 
+  /** The write count of each slot when last swept; accessed only by the consumer. */
+  long @Nullable[] sweepWrites;
+
+  /** The number of drains since the last sweep; accessed only by the consumer. */
+  int drainsSinceSweep;
+
+  /** The time of the last sweep; accessed only by the consumer. */
+  long lastSweepNanos = System.nanoTime();
+
+  /** The counts of the buffers that were released; written only by the consumer. */
+  long releasedReads;
+  long releasedWrites;
+
   /** CASes the tableBusy field from 0 to 1 to acquire lock. */
   final boolean casTableBusy() {
     return TABLE_BUSY.compareAndSet(this, 0, 1);
@@ -228,6 +255,51 @@ abstract class StripedBuffer<E> implements Buffer<E> {
         buffer.drainTo(consumer);
       }
     }
+    long now = System.nanoTime();
+    if ((++drainsSinceSweep >= SWEEP_INTERVAL)
+        || ((now - lastSweepNanos) >= SWEEP_INTERVAL_NANOS)) {
+      drainsSinceSweep = 0;
+      lastSweepNanos = now;
+      sweep(buffers);
+    }
+  }
+
+  /**
+   * Releases the empty buffers that were not written to since the previous sweep. The caller must
+   * ensure that a consumer has exclusive read access to the buffer.
+   *
+   * @param buffers the table of buffers that was drained
+   */
+  final void sweep(Buffer<E>[] buffers) {
+    long[] previous = sweepWrites;
+    long[] current = new long[buffers.length];
+    sweepWrites = current;
+    if (!casTableBusy()) {
+      return;
+    }
+    try {
+      if (table != buffers) {
+        return;
+      }
+      for (int i = 0; i < buffers.length; i++) {
+        Buffer<E> buffer = buffers[i];
+        if (buffer == null) {
+          continue;
+        }
+        long writes = buffer.writes();
+        long reads = buffer.reads();
+        if ((previous != null) && (i < previous.length)
+            && (previous[i] == writes) && (writes == reads)) {
+          releasedWrites += writes;
+          releasedReads += reads;
+          buffers[i] = null;
+        } else {
+          current[i] = writes;
+        }
+      }
+    } finally {
+      tableBusy = 0;
+    }
   }
 
   @Override
@@ -236,7 +308,7 @@ abstract class StripedBuffer<E> implements Buffer<E> {
     if (buffers == null) {
       return 0;
     }
-    long reads = 0;
+    long reads = releasedReads;
     for (Buffer<E> buffer : buffers) {
       if (buffer != null) {
         reads += buffer.reads();
@@ -251,7 +323,7 @@ abstract class StripedBuffer<E> implements Buffer<E> {
     if (buffers == null) {
       return 0;
     }
-    long writes = 0;
+    long writes = releasedWrites;
     for (Buffer<E> buffer : buffers) {
       if (buffer != null) {
         writes += buffer.writes();
@@ -264,6 +264,19 @@ final class TimerWheel<K, V> implements Iterable<Node<K, V>> {
     return Long.MAX_VALUE;
   }
 
+  /** Returns the number of buckets that hold at least one timer. */
+  public int occupancy() {
+    int occupied = 0;
+    for (Node<K, V>[] timerWheel : wheel) {
+      for (Node<K, V> sentinel : timerWheel) {
+        if (sentinel.getNextInVariableOrder() != sentinel) {
+          occupied++;
+        }
+      }
+    }
+    return occupied;
+  }
+
   /**
    * Returns the duration when the wheel's next bucket expires, or {@link Long#MAX_VALUE} if empty.
    *
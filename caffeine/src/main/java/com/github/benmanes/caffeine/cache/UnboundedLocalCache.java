@@ -186,6 +186,10 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
   public void notifyRemoval(@Nullable K key, @Nullable V value, RemovalCause cause) {
     if (!hasRemovalListener()) {
       return;
+    } else if (BatchingRemovalListener.isBatching(removalListener)) {
+      // Accumulated and delivered in batches on the executor
+      removalListener.onRemoval(key, value, cause);
+      return;
     }
     Runnable task = () -> {
       try {
@@ -1060,10 +1064,16 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
 
   /** An eviction policy that supports no boundings. */
   static final class UnboundedPolicy<K, V> implements Policy<K, V> {
+    final @Nullable CoalescedLoads coalescedLoads;
     final UnboundedLocalCache<K, V> cache;
     final Function<V, V> transformer;
 
     UnboundedPolicy(UnboundedLocalCache<K, V> cache, Function<V, V> transformer) {
+      this(cache, transformer, /* coalescedLoads */ null);
+    }
+    UnboundedPolicy(UnboundedLocalCache<K, V> cache, Function<V, V> transformer,
+        @Nullable CoalescedLoads coalescedLoads) {
+      this.coalescedLoads = coalescedLoads;
       this.transformer = transformer;
       this.cache = cache;
     }
@@ -1104,6 +1114,15 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
     @Override public Optional<FixedRefresh<K, V>> refreshAfterWrite() {
       return Optional.empty();
     }
+    @Override public Optional<CoalescedLoads> coalescedLoads() {
+      return Optional.ofNullable(coalescedLoads);
+    }
+    @Override public Metrics metrics() {
+      var metrics = new PolicyMetrics();
+      var refreshes = cache.refreshes;
+      metrics.pendingRefreshes = (refreshes == null) ? 0 : refreshes.size();
+      return metrics;
+    }
   }
 
   /* --------------- Loading Cache --------------- */
@@ -1223,7 +1242,7 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
 
     @SuppressWarnings("unchecked")
     UnboundedLocalAsyncLoadingCache(Caffeine<K, V> builder, AsyncCacheLoader<? super K, V> loader) {
-      super(loader);
+      super(builder, loader);
       cache = new UnboundedLocalCache<>(
           (Caffeine<K, CompletableFuture<V>>) builder, /* async */ true);
     }
@@ -1246,7 +1265,7 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
       @SuppressWarnings("unchecked")
       Function<V, V> castTransformer = (Function<V, V>) transformer;
       return (policy == null)
-          ? (policy = new UnboundedPolicy<>(castCache, castTransformer))
+          ? (policy = new UnboundedPolicy<>(castCache, castTransformer, coalescer))
           : policy;
     }
 
@@ -1260,6 +1279,10 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
       proxy.isRecordingStats = cache.isRecordingStats();
       proxy.removalListener = cache.removalListener;
       proxy.cacheLoader = cacheLoader;
+      if (coalescer != null) {
+        proxy.coalesceMaximumBatchSize = coalescer.maximumBatchSize;
+        proxy.coalesceMaximumDelayNanos = coalescer.maximumDelayNanos;
+      }
       proxy.async = true;
       return proxy;
     }
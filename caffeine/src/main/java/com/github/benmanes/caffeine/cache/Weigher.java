@@ -44,6 +44,21 @@ public interface Weigher<K, V> {
   @NonNegative
   int weigh(K key, V value);
 
+  /**
+   * Returns the weight of a cache entry with a 64-bit range. This is the method used by the cache
+   * to determine the entry's weight, allowing for a precise unit of measure (such as bytes) for
+   * entries that are too large to be represented by {@link #weigh}. The default implementation
+   * returns the result of {@link #weigh}, and a {@link LongWeigher} may be implemented instead when
+   * only the 64-bit weight is meaningful.
+   *
+   * @param key the key to weigh
+   * @param value the value to weigh
+   * @return the weight of the entry; must be non-negative and at most {@code Long.MAX_VALUE >>> 1}
+   */
+  default @NonNegative long weighLong(K key, V value) {
+    return weigh(key, value);
+  }
+
   /**
    * Returns a weigher where an entry has a weight of {@code 1}.
    *
@@ -95,6 +110,15 @@ final class BoundedWeigher<K, V> implements Weigher<K, V>, Serializable {
     return weight;
   }
 
+  @Override
+  public long weighLong(K key, V value) {
+    long weight = delegate.weighLong(key, value);
+    requireArgument(weight >= 0);
+    requireArgument(weight <= BoundedLocalCache.MAXIMUM_CAPACITY,
+        "weight (%s) exceeds the maximum capacity", weight);
+    return weight;
+  }
+
   Object writeReplace() {
     return delegate;
   }
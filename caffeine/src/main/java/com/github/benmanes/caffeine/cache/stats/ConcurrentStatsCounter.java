@@ -73,6 +73,11 @@ public final class ConcurrentStatsCounter implements StatsCounter {
 
   @Override
   public void recordEviction(int weight, RemovalCause cause) {
+    recordEviction((long) weight, cause);
+  }
+
+  @Override
+  public void recordEviction(long weight, RemovalCause cause) {
     requireNonNull(cause);
     evictionCount.increment();
     evictionWeight.add(weight);
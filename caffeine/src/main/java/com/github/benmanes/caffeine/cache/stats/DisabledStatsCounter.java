@@ -46,6 +46,11 @@ enum DisabledStatsCounter implements StatsCounter {
     requireNonNull(cause);
   }
 
+  @Override
+  public void recordEviction(@NonNegative long weight, RemovalCause cause) {
+    requireNonNull(cause);
+  }
+
   @Override
   public CacheStats snapshot() {
     return CacheStats.empty();
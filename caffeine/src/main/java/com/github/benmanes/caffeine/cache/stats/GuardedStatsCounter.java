@@ -84,6 +84,16 @@ final class GuardedStatsCounter implements StatsCounter {
     }
   }
 
+  @Override
+  public void recordEviction(long weight, RemovalCause cause) {
+    requireNonNull(cause);
+    try {
+      delegate.recordEviction(weight, cause);
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Exception thrown by stats counter", t);
+    }
+  }
+
   @Override
   public CacheStats snapshot() {
     try {
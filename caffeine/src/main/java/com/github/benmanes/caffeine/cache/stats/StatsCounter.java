@@ -80,6 +80,20 @@ public interface StatsCounter {
    */
   void recordEviction(@NonNegative int weight, RemovalCause cause);
 
+  /**
+   * Records the eviction of an entry from the cache. This should only been called when an entry is
+   * evicted due to the cache's eviction strategy, and not as a result of manual
+   * {@link Cache#invalidate invalidations}. The default implementation delegates to
+   * {@link #recordEviction(int, RemovalCause)} with the weight saturated to the range of an
+   * {@code int}.
+   *
+   * @param weight the weight of the evicted entry
+   * @param cause the reason for which the entry was removed
+   */
+  default void recordEviction(@NonNegative long weight, RemovalCause cause) {
+    recordEviction((int) Math.min(weight, Integer.MAX_VALUE), cause);
+  }
+
   /**
    * Returns a snapshot of this counter's values. Note that this may be an inconsistent view, as it
    * may be interleaved with update operations.
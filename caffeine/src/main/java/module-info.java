@@ -5,4 +5,5 @@ module com.github.benmanes.caffeine {
 
   requires static com.google.errorprone.annotations;
   requires static org.checkerframework.checker.qual;
+  requires static jdk.jfr;
 }
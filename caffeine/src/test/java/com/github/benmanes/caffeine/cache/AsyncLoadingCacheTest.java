@@ -672,6 +672,113 @@ public final class AsyncLoadingCacheTest {
     });
   }
 
+  /* --------------- coalesceLoads --------------- */
+
+  @Test
+  public void coalesceLoads_noBulkLoader() {
+    var builder = Caffeine.newBuilder().coalesceLoads(10, Duration.ofMillis(1));
+    assertThrows(IllegalStateException.class, () -> builder.buildAsync(key -> key));
+  }
+
+  @Test
+  public void coalesceLoads_maximumBatchSize() {
+    var batches = new ArrayList<Set<Int>>();
+    AsyncCacheLoader<Int, Int> loader = AsyncCacheLoader.bulk(keys -> {
+      batches.add(ImmutableSet.copyOf(keys));
+      return keys.stream().collect(toImmutableMap(identity(), Int::negate));
+    });
+    AsyncLoadingCache<Int, Int> cache = Caffeine.newBuilder()
+        .coalesceLoads(2, Duration.ofDays(1))
+        .executor(Runnable::run)
+        .buildAsync(loader);
+
+    var first = cache.get(Int.valueOf(1));
+    assertThat(first).isNotDone();
+    var second = cache.get(Int.valueOf(2));
+
+    assertThat(first).succeedsWith(-1);
+    assertThat(second).succeedsWith(-2);
+    assertThat(batches).containsExactly(Int.setOf(1, 2));
+
+    var coalesced = cache.synchronous().policy().coalescedLoads().orElseThrow();
+    assertThat(coalesced.maximumBatchSize()).isEqualTo(2);
+    assertThat(coalesced.maximumDelay()).isEqualTo(Duration.ofDays(1));
+    assertThat(coalesced.batchCount()).isEqualTo(1);
+    assertThat(coalesced.keyCount()).isEqualTo(2);
+    assertThat(coalesced.averageBatchSize()).isEqualTo(2.0);
+  }
+
+  @Test
+  public void coalesceLoads_sameThread_outsideOfComputation() {
+    AsyncCacheLoader<Int, Int> loader = AsyncCacheLoader.bulk(keys -> Map.of());
+    AsyncLoadingCache<Int, Int> cache = Caffeine.newBuilder()
+        .coalesceLoads(2, Duration.ofDays(1))
+        .executor(Runnable::run)
+        .buildAsync(loader);
+
+    var first = cache.get(Int.valueOf(1));
+    var invalidated = first.thenRun(() -> cache.synchronous().invalidate(Int.valueOf(2)));
+    var second = cache.get(Int.valueOf(2));
+
+    assertThat(first).succeedsWithNull();
+    assertThat(second).succeedsWithNull();
+    assertThat(invalidated).succeedsWithNull();
+    assertThat(cache.synchronous().asMap()).isEmpty();
+  }
+
+  @Test
+  public void coalesceLoads_maximumDelay() {
+    var batches = new ArrayList<Set<Int>>();
+    AsyncCacheLoader<Int, Int> loader = AsyncCacheLoader.bulk(keys -> {
+      batches.add(ImmutableSet.copyOf(keys));
+      return keys.stream().collect(toImmutableMap(identity(), Int::negate));
+    });
+    AsyncLoadingCache<Int, Int> cache = Caffeine.newBuilder()
+        .coalesceLoads(100, Duration.ofMillis(250))
+        .executor(Runnable::run)
+        .buildAsync(loader);
+
+    var futures = List.of(cache.get(Int.valueOf(1)),
+        cache.get(Int.valueOf(2)), cache.get(Int.valueOf(3)));
+    assertThat(cache.get(Int.valueOf(2))).isSameInstanceAs(futures.get(1));
+    assertThat(futures.get(2)).succeedsWith(-3);
+    assertThat(futures.get(1)).succeedsWith(-2);
+    assertThat(futures.get(0)).succeedsWith(-1);
+    assertThat(batches).containsExactly(Int.setOf(1, 2, 3));
+  }
+
+  @Test
+  public void coalesceLoads_absent() {
+    AsyncCacheLoader<Int, Int> loader = AsyncCacheLoader.bulk(keys -> Map.of());
+    AsyncLoadingCache<Int, Int> cache = Caffeine.newBuilder()
+        .coalesceLoads(1, Duration.ZERO)
+        .executor(Runnable::run)
+        .buildAsync(loader);
+    assertThat(cache.get(Int.valueOf(1))).succeedsWithNull();
+    assertThat(cache.synchronous().asMap()).isEmpty();
+  }
+
+  @Test
+  public void coalesceLoads_failure() {
+    AsyncCacheLoader<Int, Int> loader = AsyncCacheLoader.bulk(keys -> {
+      throw new IllegalStateException();
+    });
+    AsyncLoadingCache<Int, Int> cache = Caffeine.newBuilder()
+        .coalesceLoads(2, Duration.ZERO)
+        .executor(Runnable::run)
+        .buildAsync(loader);
+    assertThat(cache.get(Int.valueOf(1))).failsWith(CompletionException.class)
+        .hasCauseThat().isInstanceOf(IllegalStateException.class);
+    assertThat(cache.synchronous().policy().coalescedLoads().orElseThrow().batchCount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void coalesceLoads_disabled() {
+    AsyncLoadingCache<Int, Int> cache = Caffeine.newBuilder().buildAsync(key -> key);
+    assertThat(cache.synchronous().policy().coalescedLoads()).isEmpty();
+  }
+
   /* --------------- AsyncCacheLoader --------------- */
 
   @Test
@@ -23,6 +23,7 @@ import static com.github.benmanes.caffeine.cache.BoundedLocalCache.ADMIT_HASHDOS
 import static com.github.benmanes.caffeine.cache.BoundedLocalCache.EXPIRE_WRITE_TOLERANCE;
 import static com.github.benmanes.caffeine.cache.BoundedLocalCache.PERCENT_MAIN_PROTECTED;
 import static com.github.benmanes.caffeine.cache.BoundedLocalCache.WARN_AFTER_LOCK_WAIT_NANOS;
+import static com.github.benmanes.caffeine.cache.BoundedLocalCache.WRITE_BATCH_MAX;
 import static com.github.benmanes.caffeine.cache.BoundedLocalCache.WRITE_BUFFER_MAX;
 import static com.github.benmanes.caffeine.cache.Node.WINDOW;
 import static com.github.benmanes.caffeine.cache.RemovalCause.COLLECTED;
@@ -45,6 +46,7 @@ import static com.google.common.truth.Truth.assertThat;
 import static java.lang.Thread.State.BLOCKED;
 import static java.lang.Thread.State.WAITING;
 import static java.util.Locale.US;
+import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -71,6 +73,7 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.time.Duration;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -85,6 +88,7 @@ import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -96,12 +100,14 @@ import org.mockito.stubbing.Answer;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import com.github.benmanes.caffeine.cache.BoundedLocalCache.BoundedPolicy;
 import com.github.benmanes.caffeine.cache.BoundedLocalCache.BoundedPolicy.FixedExpireAfterWrite;
 import com.github.benmanes.caffeine.cache.BoundedLocalCache.PerformCleanupTask;
 import com.github.benmanes.caffeine.cache.LocalCacheFactory.MethodHandleBasedFactory;
 import com.github.benmanes.caffeine.cache.Policy.Eviction;
 import com.github.benmanes.caffeine.cache.Policy.FixedExpiration;
 import com.github.benmanes.caffeine.cache.Policy.VarExpiration;
+import com.github.benmanes.caffeine.cache.References.LookupKeyReference;
 import com.github.benmanes.caffeine.cache.References.WeakKeyReference;
 import com.github.benmanes.caffeine.cache.SnapshotEntry.CompleteEntry;
 import com.github.benmanes.caffeine.cache.SnapshotEntry.ExpirableEntry;
@@ -139,6 +145,7 @@ import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
+import com.google.common.testing.FakeTicker;
 import com.google.common.testing.GcFinalization;
 import com.google.common.util.concurrent.Uninterruptibles;
 
@@ -584,6 +591,88 @@ public final class BoundedLocalCacheTest {
     assertThat(cache.drainStatus).isEqualTo(IDLE);
   }
 
+  @Test
+  public void putAll_batched() {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .executor(task -> {})
+        .maximumSize(Long.MAX_VALUE)
+        .<Int, Int>build());
+    var entries = new HashMap<Int, Int>();
+    for (int i = 0; i < (2 * WRITE_BATCH_MAX) + 1; i++) {
+      entries.put(Int.valueOf(i), Int.valueOf(-i));
+    }
+    cache.putAll(entries);
+    assertThat(drainBatchSizes(cache)).containsExactly(WRITE_BATCH_MAX, WRITE_BATCH_MAX, 1);
+
+    cache.cleanUp();
+    assertThat(cache).containsExactlyEntriesIn(entries);
+    assertThat(cache.weightedSize()).isEqualTo(entries.size());
+  }
+
+  @Test
+  public void invalidateAll_batched() {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .executor(task -> {})
+        .maximumSize(Long.MAX_VALUE)
+        .<Int, Int>build());
+    var keys = new ArrayList<Int>();
+    for (int i = 0; i < (2 * WRITE_BATCH_MAX) + 1; i++) {
+      cache.put(Int.valueOf(i), Int.valueOf(-i));
+      keys.add(Int.valueOf(i));
+    }
+    cache.cleanUp();
+
+    cache.invalidateAll(keys);
+    assertThat(drainBatchSizes(cache)).containsExactly(WRITE_BATCH_MAX, WRITE_BATCH_MAX, 1);
+
+    cache.cleanUp();
+    assertThat(cache).isEmpty();
+    assertThat(cache.weightedSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void drainWriteBuffer_batched() {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .executor(task -> {})
+        .maximumSize(Long.MAX_VALUE)
+        .<Int, Int>build());
+    var applied = new AtomicInteger();
+    var tasks = new Runnable[WRITE_BATCH_MAX];
+    Arrays.fill(tasks, (Runnable) applied::incrementAndGet);
+    while (cache.writeBuffer.offer(new BoundedLocalCache.BatchTask(tasks))) {
+      // fill the write buffer with full batches
+    }
+
+    cache.evictionLock.lock();
+    try {
+      int drained = cache.drainWriteBuffer();
+      assertThat(drained).isEqualTo(applied.get());
+      assertThat(drained).isAtMost(WRITE_BUFFER_MAX + WRITE_BATCH_MAX);
+      assertThat(cache.writeBuffer.isEmpty()).isFalse();
+      assertThat(cache.drainStatus).isEqualTo(PROCESSING_TO_REQUIRED);
+    } finally {
+      cache.evictionLock.unlock();
+    }
+    cache.writeBuffer.clear();
+  }
+
+  /** Removes the pending tasks and returns the number of policy updates in each. */
+  private static List<Integer> drainBatchSizes(BoundedLocalCache<Int, Int> cache) {
+    var sizes = new ArrayList<Integer>();
+    cache.evictionLock.lock();
+    try {
+      for (Runnable task; (task = cache.writeBuffer.poll()) != null;) {
+        sizes.add((task instanceof BoundedLocalCache.BatchTask)
+            ? ((BoundedLocalCache.BatchTask) task).tasks.length
+            : 1);
+        task.run();
+      }
+    } finally {
+      cache.evictionLock.unlock();
+    }
+    return sizes;
+  }
+
   /* --------------- Eviction --------------- */
 
   @Test(dataProvider = "caches")
@@ -1070,6 +1159,108 @@ public final class BoundedLocalCacheTest {
     assertThat(100.0 * allow / (allow + reject)).isIn(Range.open(0.2, 2.0));
   }
 
+  @Test
+  public void evict_admit_missCost() {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .maximumSize(100)
+        .missCostAware()
+        .recordStats()
+        .<Integer, Integer>build());
+    var loadCosts = requireNonNull(cache.loadCosts);
+    cache.frequencySketch().ensureCapacity(100);
+    loadCosts.ensureCapacity(100);
+    Integer candidate = 1;
+    Integer victim = 2;
+
+    // Prefer victim if tie
+    cache.frequencySketch().increment(candidate);
+    cache.frequencySketch().increment(victim);
+    cache.recordLoadCost(victim, TimeUnit.MILLISECONDS.toNanos(1));
+    cache.recordLoadCost(candidate, TimeUnit.MILLISECONDS.toNanos(1));
+    assertThat(cache.admit(candidate, victim)).isFalse();
+
+    // Prefer candidate if more expensive to reload
+    cache.recordLoadCost(candidate, TimeUnit.SECONDS.toNanos(10));
+    assertThat(loadCosts.cost(candidate)).isGreaterThan(loadCosts.cost(victim));
+    assertThat(cache.admit(candidate, victim)).isTrue();
+  }
+
+  @Test
+  public void evict_admit_missCost_hashDos() {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .maximumSize(100)
+        .missCostAware()
+        .recordStats()
+        .<Integer, Integer>build());
+    cache.frequencySketch().ensureCapacity(100);
+    requireNonNull(cache.loadCosts).ensureCapacity(100);
+    Integer candidate = 1;
+    Integer victim = 2;
+
+    // A cold candidate is not randomly admitted despite its cost-aware frequency being warm
+    cache.frequencySketch().increment(candidate);
+    cache.recordLoadCost(candidate, TimeUnit.SECONDS.toNanos(10));
+    for (int i = 0; i < 15; i++) {
+      cache.frequencySketch().increment(victim);
+    }
+    cache.recordLoadCost(victim, TimeUnit.SECONDS.toNanos(10));
+    assertThat(cache.costAwareFrequency(candidate)).isAtLeast(ADMIT_HASHDOS_THRESHOLD);
+    for (int i = 0; i < 1_000; i++) {
+      assertThat(cache.admit(candidate, victim)).isFalse();
+    }
+  }
+
+  @Test
+  public void evict_admit_missCost_serialize() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .maximumSize(100)
+        .missCostAware()
+        .recordStats()
+        .build();
+    assertThat(cache).isReserialize();
+  }
+
+  @Test
+  public void evict_admit_weighted_reject() {
+    // The heavy candidate is more popular than the first victim but not the victims it displaces
+    var cache = weightedAdmissionCache(/* candidateFreq */ 3);
+    assertThat(cache.containsKey(100)).isFalse();
+    assertThat(cache.keySet()).containsExactly(1, 2, 3, 4, 5, 6, 7);
+    assertThat(cache.weightedSize()).isEqualTo(7);
+  }
+
+  @Test
+  public void evict_admit_weighted_accept() {
+    // The heavy candidate is more popular than the combined victims that it displaces
+    var cache = weightedAdmissionCache(/* candidateFreq */ 5);
+    assertThat(cache.keySet()).containsExactly(3, 4, 5, 6, 7, 100);
+    assertThat(cache.weightedSize()).isEqualTo(10);
+  }
+
+  private static BoundedLocalCache<Integer, Integer> weightedAdmissionCache(int candidateFreq) {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .weigher((Integer key, Integer value) -> value)
+        .executor(Runnable::run)
+        .maximumWeight(10)
+        .<Integer, Integer>build());
+    cache.frequencySketch().ensureCapacity(100);
+
+    // probation: [1..7] with a frequency of 2, window: [8] with a frequency of 1
+    for (int i = 1; i <= 8; i++) {
+      cache.put(i, 1);
+    }
+    for (int i = 1; i <= 7; i++) {
+      cache.frequencySketch().increment(i);
+    }
+
+    // The candidate is compared against the victims that cover the excess weight of 2
+    for (int i = 1; i < candidateFreq; i++) {
+      cache.frequencySketch().increment(100);
+    }
+    cache.put(100, 5);
+    return cache;
+  }
+
   @Test(groups = "isolated")
   public void evict_update() {
     Int key = Int.valueOf(0);
@@ -1589,6 +1780,47 @@ public final class BoundedLocalCacheTest {
     assertThat(result).isEqualTo(Buffer.SUCCESS);
   }
 
+  @Test(dataProvider = "caches")
+  @CacheSpec(compute = Compute.SYNC, population = Population.EMPTY, maximumSize = Maximum.FULL)
+  public void metrics_readBufferDrops(BoundedLocalCache<Int, Int> cache, CacheContext context) {
+    var dummy = cache.nodeFactory.newNode(
+        new WeakKeyReference<>(null, null), null, null, 1, 0);
+    cache.frequencySketch().ensureCapacity(1);
+
+    for (int i = 0; i < BoundedBuffer.BUFFER_SIZE; i++) {
+      var result = cache.readBuffer.offer(dummy);
+      assertThat(result).isEqualTo(Buffer.SUCCESS);
+    }
+    var refreshed = cache.afterRead(dummy, 0, /* recordHit */ false);
+    assertThat(refreshed).isNull();
+
+    var metrics = new BoundedPolicy<>(cache, identity(), cache.isWeighted).metrics();
+    assertThat(metrics.readBufferDrops()).isEqualTo(1);
+    assertThat(metrics.readBufferOffers()).isEqualTo(BoundedBuffer.BUFFER_SIZE + 1);
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(compute = Compute.SYNC, population = Population.FULL, maximumSize = Maximum.FULL)
+  public void metrics_maintenance(BoundedLocalCache<Int, Int> cache, CacheContext context) {
+    var policy = new BoundedPolicy<>(cache, identity(), cache.isWeighted);
+    long maintenanceCount = policy.metrics().maintenanceCount();
+    cache.cleanUp();
+
+    var metrics = policy.metrics();
+    assertThat(metrics.writeBufferSize()).isEqualTo(0);
+    assertThat(metrics.writeBufferCapacity()).isEqualTo(BoundedLocalCache.WRITE_BUFFER_MAX);
+    assertThat(metrics.maintenanceCount()).isEqualTo(maintenanceCount + 1);
+    assertThat(metrics.maintenanceTime()).isAtLeast(0);
+    assertThat(metrics.windowMaximum()).isEqualTo(cache.windowMaximum());
+    assertThat(metrics.protectedMaximum()).isEqualTo(cache.mainProtectedMaximum());
+    assertThat(metrics.windowWeightedSize() + metrics.probationWeightedSize()
+        + metrics.protectedWeightedSize()).isEqualTo(cache.weightedSize());
+    assertThat(metrics.stepSize()).isEqualTo(cache.stepSize());
+    assertThat(metrics.adjustment()).isEqualTo(cache.adjustment());
+    assertThat(metrics.pendingRefreshes()).isEqualTo(0);
+    assertThat(metrics.toString()).contains("maintenanceCount=" + (maintenanceCount + 1));
+  }
+
   @Test(dataProvider = "caches")
   @CacheSpec(compute = Compute.SYNC, population = Population.EMPTY, maximumSize = Maximum.FULL)
   public void exceedsMaximumBufferSize_onWrite(
@@ -1803,6 +2035,52 @@ public final class BoundedLocalCacheTest {
     }
   }
 
+  @Test
+  public void evict_longWeigher() {
+    long unit = 3L * Integer.MAX_VALUE;
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .weigher((LongWeigher<Integer, Integer>) (key, value) -> value * unit)
+        .maximumWeight(4 * unit)
+        .executor(Runnable::run)
+        .recordStats()
+        .build();
+    var eviction = cache.policy().eviction().orElseThrow();
+
+    cache.put(1, 1);
+    cache.put(2, 2);
+    assertThat(eviction.weightOfLong(2)).hasValue(2 * unit);
+    assertThat(eviction.weightOf(2)).hasValue(Integer.MAX_VALUE);
+    assertThat(eviction.weightedSize()).hasValue(3 * unit);
+    assertThat(eviction.coldestWeighted(unit)).hasSize(1);
+
+    cache.put(3, 3);
+    cache.cleanUp();
+    assertThat(eviction.weightedSize().getAsLong()).isAtMost(4 * unit);
+    assertThat(cache.stats().evictionWeight()).isAtLeast(unit);
+    assertThat(cache.stats().evictionWeight() % unit).isEqualTo(0);
+  }
+
+  @Test
+  public void evict_longWeigher_overflow() {
+    Cache<Long, Long> cache = Caffeine.newBuilder()
+        .weigher((LongWeigher<Long, Long>) (key, value) -> value)
+        .maximumWeight(Long.MAX_VALUE)
+        .executor(Runnable::run)
+        .build();
+    var eviction = cache.policy().eviction().orElseThrow();
+
+    cache.put(1L, BoundedLocalCache.MAXIMUM_CAPACITY);
+    cache.put(2L, BoundedLocalCache.MAXIMUM_CAPACITY);
+    cache.put(3L, 1L);
+    cache.cleanUp();
+    assertThat(eviction.weightedSize().getAsLong()).isAtLeast(0L);
+    assertThat(eviction.weightedSize().getAsLong()).isAtMost(BoundedLocalCache.MAXIMUM_CAPACITY);
+    assertThat(cache.estimatedSize()).isLessThan(3);
+
+    assertThrows(IllegalArgumentException.class, () -> cache.put(4L, Long.MAX_VALUE));
+    assertThat(cache.getIfPresent(4L)).isNull();
+  }
+
   /* --------------- Expiration --------------- */
 
   @Test(dataProvider = "caches")
@@ -2243,6 +2521,147 @@ public final class BoundedLocalCacheTest {
     }
   }
 
+  @Test
+  public void refreshIfNeeded_early() {
+    var loads = new AtomicInteger();
+    var ticker = new FakeTicker();
+    LoadingCache<Integer, Integer> loadingCache = Caffeine.newBuilder()
+        .refreshAfterWrite(Duration.ofMinutes(1))
+        .executor(Runnable::run)
+        .earlyRefresh(1.0)
+        .ticker(ticker::read)
+        .build(key -> loads.incrementAndGet());
+    var cache = asBoundedLocalCache(loadingCache);
+    assertThat(loadingCache.get(1)).isEqualTo(1);
+
+    // Refresh on schedule until the reload time has been measured
+    ticker.advance(Duration.ofSeconds(30));
+    assertThat(loadingCache.get(1)).isEqualTo(1);
+    assertThat(cache.refreshAfterWriteNanos(Duration.ofSeconds(59).toNanos()))
+        .isEqualTo(Duration.ofMinutes(1).toNanos());
+
+    // An expensive reload is likely to be refreshed early on the next read
+    cache.refreshTime = Duration.ofHours(1).toNanos();
+    for (int i = 0; (i < 100) && (loads.get() == 1); i++) {
+      var unused = loadingCache.get(1);
+    }
+    assertThat(loads.get()).isEqualTo(2);
+    assertThat(loadingCache.get(1)).isAnyOf(2, 3);
+    assertThat(cache.refreshTime).isLessThan(Duration.ofHours(1).toNanos());
+  }
+
+  @Test
+  public void refreshIfNeeded_early_horizon() {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .refreshAfterWrite(Duration.ofMinutes(1))
+        .earlyRefresh(1.0)
+        .build(key -> key));
+    cache.refreshTime = Duration.ofSeconds(1).toNanos();
+
+    // Too far from the refresh time to be eligible
+    long refreshNanos = Duration.ofMinutes(1).toNanos();
+    assertThat(cache.refreshAfterWriteNanos(0)).isEqualTo(refreshNanos);
+    assertThat(cache.refreshAfterWriteNanos(Duration.ofSeconds(51).toNanos()))
+        .isEqualTo(refreshNanos);
+
+    // Within the horizon the refresh time is never extended
+    for (int i = 0; i < 100; i++) {
+      assertThat(cache.refreshAfterWriteNanos(Duration.ofSeconds(59).toNanos()))
+          .isIn(Range.closed(0L, refreshNanos));
+    }
+  }
+
+  @Test
+  public void refreshIfNeeded_early_serialize() {
+    LoadingCache<Int, Int> cache = Caffeine.newBuilder()
+        .refreshAfterWrite(Duration.ofMinutes(1))
+        .earlyRefresh(2.5)
+        .build(Loader.IDENTITY);
+    assertThat(cache).isReserialize();
+  }
+
+  @Test
+  public void refreshIfNeeded_coalesced() {
+    var ticker = new FakeTicker();
+    var batches = new ArrayList<Map<Integer, Integer>>();
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .coalesceRefreshes(3, Duration.ofHours(1))
+        .refreshAfterWrite(Duration.ofMinutes(1))
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build(new CacheLoader<Integer, Integer>() {
+          @Override public Integer load(Integer key) {
+            return key;
+          }
+          @Override public Map<Integer, Integer> reloadAll(
+              Map<? extends Integer, ? extends Integer> oldValues) {
+            batches.add(Map.copyOf(oldValues));
+            return Maps.toMap(oldValues.keySet(), key -> oldValues.get(key) + 10);
+          }
+        });
+    assertThat(cache.getAll(List.of(1, 2, 3, 4))).hasSize(4);
+
+    // The refreshes are pending until the batch is full
+    ticker.advance(Duration.ofMinutes(2));
+    assertThat(cache.get(1)).isEqualTo(1);
+    assertThat(cache.get(2)).isEqualTo(2);
+    assertThat(batches).isEmpty();
+
+    // A write while the batch is pending discards that key's reload
+    cache.put(2, 20);
+    ticker.advance(Duration.ofMinutes(2));
+
+    assertThat(cache.get(3)).isAnyOf(3, 13);
+    assertThat(batches).containsExactly(Map.of(1, 1, 2, 20, 3, 3));
+    assertThat(cache.asMap()).containsExactly(1, 11, 2, 20, 3, 13, 4, 4);
+  }
+
+  @Test
+  public void refreshIfNeeded_coalesced_serialize() {
+    LoadingCache<Int, Int> cache = Caffeine.newBuilder()
+        .coalesceRefreshes(3, Duration.ofHours(1))
+        .refreshAfterWrite(Duration.ofMinutes(1))
+        .build(Loader.BULK_IDENTITY);
+    assertThat(cache).isReserialize();
+  }
+
+  @Test
+  public void refreshIfNeeded_staleWhileRevalidate() {
+    var loads = new AtomicInteger();
+    var ticker = new FakeTicker();
+    var failing = new AtomicBoolean();
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .staleWhileRevalidate(Duration.ofMinutes(5))
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build(key -> {
+          if (failing.get()) {
+            throw new IllegalStateException();
+          }
+          return loads.incrementAndGet();
+        });
+    assertThat(cache.get(1)).isEqualTo(1);
+
+    // Serve the stale value while the reload fails
+    failing.set(true);
+    ticker.advance(Duration.ofMinutes(2));
+    assertThat(cache.get(1)).isEqualTo(1);
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+
+    // Reload in the background once the data source recovers
+    failing.set(false);
+    assertThat(cache.get(1)).isAnyOf(1, 2);
+    assertThat(cache.getIfPresent(1)).isEqualTo(2);
+    assertThat(loads.get()).isEqualTo(2);
+
+    // Remove the entry once the stale limit has elapsed
+    failing.set(true);
+    ticker.advance(Duration.ofMinutes(7));
+    assertThat(cache.getIfPresent(1)).isNull();
+    assertThrows(IllegalStateException.class, () -> cache.get(1));
+  }
+
   @Test(dataProvider = "caches", groups = "isolated")
   @CacheSpec(implementation = Implementation.Caffeine, population = Population.EMPTY,
       refreshAfterWrite = Expire.ONE_MINUTE, executor = CacheExecutor.THREADED,
@@ -2702,6 +3121,20 @@ public final class BoundedLocalCacheTest {
     task.complete(null);
   }
 
+  @Test(dataProvider = "caches")
+  @CacheSpec(population = Population.EMPTY, keys = ReferenceType.STRONG)
+  public void lookupKey_strongKeys(BoundedLocalCache<Int, Int> cache, CacheContext context) {
+    assertThat(cache.lookupKey(context.absentKey())).isSameInstanceAs(context.absentKey());
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(population = Population.EMPTY, keys = ReferenceType.WEAK)
+  public void lookupKey_weakKeys(BoundedLocalCache<Int, Int> cache, CacheContext context) {
+    var lookupKey = cache.lookupKey(context.absentKey());
+    assertThat(lookupKey).isInstanceOf(LookupKeyReference.class);
+    assertThat(((LookupKeyReference<?>) lookupKey).get()).isSameInstanceAs(context.absentKey());
+  }
+
   @Test(dataProvider = "caches")
   @CacheSpec(population = Population.SINGLETON, compute = Compute.SYNC,
       initialCapacity = {InitialCapacity.DEFAULT, InitialCapacity.FULL})
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.github.benmanes.caffeine.cache.Policy.NegativeCache;
+import com.google.common.testing.FakeTicker;
+
+/**
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+public final class BoundedNegativeCacheTest {
+  final FakeTicker ticker = new FakeTicker();
+  final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  public void get_absent() {
+    var cache = newCache();
+    assertThat(cache.get(1)).isNull();
+    assertThat(cache.get(1)).isNull();
+    assertThat(loads.get()).isEqualTo(1);
+
+    NegativeCache<Integer> negatives = cache.policy().negativeCache().orElseThrow();
+    assertThat(negatives.contains(1)).isTrue();
+    assertThat(negatives.estimatedSize()).isEqualTo(1);
+    assertThat(negatives.stats().hitCount()).isEqualTo(1);
+    assertThat(negatives.stats().missCount()).isEqualTo(1);
+    assertThat(cache.stats().requestCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void get_present() {
+    var cache = newCache();
+    assertThat(cache.get(2)).isEqualTo(2);
+    assertThat(cache.get(2)).isEqualTo(2);
+    assertThat(loads.get()).isEqualTo(1);
+
+    NegativeCache<Integer> negatives = cache.policy().negativeCache().orElseThrow();
+    assertThat(negatives.estimatedSize()).isEqualTo(0);
+    assertThat(negatives.stats().requestCount()).isEqualTo(1);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+    assertThat(cache.stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void get_expired() {
+    var cache = newCache();
+    assertThat(cache.get(1)).isNull();
+    ticker.advance(Duration.ofMinutes(2));
+    assertThat(cache.get(1)).isNull();
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void put_forgetsAbsence() {
+    var cache = newCache();
+    assertThat(cache.get(1)).isNull();
+    cache.put(1, 10);
+    assertThat(cache.policy().negativeCache().orElseThrow().contains(1)).isFalse();
+
+    cache.invalidate(1);
+    assertThat(cache.get(1)).isNull();
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void compute_forgetsAbsence() {
+    var cache = newCache();
+    assertThat(cache.get(1)).isNull();
+    cache.asMap().compute(1, (key, value) -> 10);
+    assertThat(cache.policy().negativeCache().orElseThrow().contains(1)).isFalse();
+    assertThat(cache.get(1)).isEqualTo(10);
+  }
+
+  @Test
+  public void invalidate_forgetsAbsence() {
+    var cache = newCache();
+    assertThat(cache.get(1)).isNull();
+    cache.invalidate(1);
+    assertThat(cache.get(1)).isNull();
+    assertThat(loads.get()).isEqualTo(2);
+
+    cache.invalidateAll();
+    assertThat(cache.policy().negativeCache().orElseThrow().estimatedSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void bounded() {
+    var cache = newCache();
+    for (int i = 1; i < 1_000; i += 2) {
+      assertThat(cache.get(i)).isNull();
+    }
+    assertThat(cache.policy().negativeCache().orElseThrow().estimatedSize()).isAtMost(10);
+  }
+
+  @Test
+  public void manual() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .negativeCaching(10, Duration.ofMinutes(1))
+        .build();
+    assertThat(cache.get(1, key -> null)).isNull();
+    assertThat(cache.get(1, key -> key)).isNull();
+    assertThat(cache.asMap().computeIfAbsent(1, key -> key)).isEqualTo(1);
+    assertThat(cache.get(1, key -> null)).isEqualTo(1);
+  }
+
+  private LoadingCache<Integer, Integer> newCache() {
+    return Caffeine.newBuilder()
+        .negativeCaching(10, Duration.ofMinutes(1))
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .maximumSize(100)
+        .recordStats()
+        .build(key -> {
+          loads.incrementAndGet();
+          return ((key % 2) == 0) ? key : null;
+        });
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+import org.testng.annotations.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+@Test(singleThreaded = true)
+public final class CacheEventsTest {
+
+  @Test
+  public void available() {
+    assertThat(CacheEvents.AVAILABLE).isTrue();
+  }
+
+  @Test
+  public void disabled() {
+    assertThat(CacheEvents.beginMaintenance()).isNull();
+    assertThat(CacheEvents.beginLockWait()).isNull();
+    assertThat(CacheEvents.beginLoad(/* refresh */ false)).isNull();
+    assertThat(CacheEvents.beginWriteBufferFull(1, 1)).isNull();
+
+    Function<Integer, Integer> mappingFunction = key -> key;
+    assertThat(CacheEvents.recordLoads(mappingFunction)).isSameInstanceAs(mappingFunction);
+  }
+
+  @Test
+  public void maintenance() throws IOException {
+    var events = record("com.github.benmanes.caffeine.Maintenance", () -> {
+      Cache<Integer, Integer> cache = Caffeine.newBuilder()
+          .executor(Runnable::run)
+          .maximumSize(10)
+          .build();
+      for (int i = 0; i < 100; i++) {
+        cache.put(i, i);
+      }
+      cache.cleanUp();
+    });
+    assertThat(events).isNotEmpty();
+
+    long evicted = events.stream().mapToLong(event -> event.getLong("evicted")).sum();
+    long drained = events.stream().mapToLong(event -> event.getInt("writesDrained")).sum();
+    assertThat(evicted).isEqualTo(90);
+    assertThat(drained).isEqualTo(100);
+  }
+
+  @Test
+  public void load() throws IOException {
+    var events = record("com.github.benmanes.caffeine.Load", () -> {
+      Cache<Integer, Integer> cache = Caffeine.newBuilder().build();
+      cache.get(1, key -> key);
+      cache.get(2, key -> null);
+    });
+    assertThat(events).hasSize(2);
+    assertThat(events.get(0).getBoolean("success")).isTrue();
+    assertThat(events.get(0).getBoolean("refresh")).isFalse();
+    assertThat(events.get(1).getBoolean("success")).isFalse();
+  }
+
+  private static List<RecordedEvent> record(String name, Runnable task) throws IOException {
+    Path file = Files.createTempFile("caffeine", ".jfr");
+    try (var recording = new Recording()) {
+      recording.enable(name).withoutThreshold();
+      recording.start();
+      task.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -17,13 +17,17 @@ package com.github.benmanes.caffeine.cache;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.Mockito.verify;
 import static org.slf4j.event.Level.WARN;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -372,6 +376,60 @@ public final class CaffeineTest {
     assertThat(eviction.isWeighted()).isTrue();
   }
 
+  /* --------------- maximumRetainedMemory --------------- */
+
+  @Test
+  public void maximumRetainedMemory_negative() {
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().maximumRetainedMemory(-1));
+  }
+
+  @Test
+  public void maximumRetainedMemory_twice() {
+    var builder = Caffeine.newBuilder().maximumRetainedMemory(1);
+    assertThrows(IllegalStateException.class, () -> builder.maximumRetainedMemory(1));
+  }
+
+  @Test
+  public void maximumRetainedMemory_maximumSize() {
+    var builder = Caffeine.newBuilder().maximumSize(1);
+    assertThrows(IllegalStateException.class, () -> builder.maximumRetainedMemory(1));
+  }
+
+  @Test
+  public void maximumRetainedMemory_maximumWeight() {
+    var builder = Caffeine.newBuilder().maximumRetainedMemory(1);
+    assertThrows(IllegalStateException.class, () -> builder.maximumWeight(1));
+  }
+
+  @Test
+  public void maximumRetainedMemory_weigher() {
+    var builder = Caffeine.newBuilder().weigher(Weigher.singletonWeigher());
+    assertThrows(IllegalStateException.class, () -> builder.maximumRetainedMemory(1));
+    assertThrows(IllegalStateException.class, () -> Caffeine.newBuilder()
+        .maximumRetainedMemory(1).weigher(Weigher.singletonWeigher()));
+  }
+
+  @Test
+  public void maximumRetainedMemory() {
+    Cache<Integer, int[]> cache = Caffeine.newBuilder()
+        .maximumRetainedMemory(1024 * 1024)
+        .executor(Runnable::run)
+        .build();
+    var eviction = cache.policy().eviction().orElseThrow();
+    assertThat(eviction.getMaximum()).isEqualTo(1024 * 1024);
+    assertThat(eviction.isWeighted()).isTrue();
+
+    cache.put(1, new int[1024]);
+    assertThat(eviction.weightOf(1).orElseThrow()).isGreaterThan(4 * 1024);
+
+    for (int i = 0; i < 1024; i++) {
+      cache.put(i, new int[1024]);
+    }
+    assertThat(eviction.weightedSize().orElseThrow()).isAtMost(1024 * 1024);
+    assertThat(cache.estimatedSize()).isLessThan(256);
+  }
+
   /* --------------- weigher --------------- */
 
   @Test
@@ -697,6 +755,367 @@ public final class CaffeineTest {
     assertThat(builder.build(k -> k)).isNotNull();
   }
 
+  /* --------------- staleWhileRevalidate --------------- */
+
+  @Test
+  public void staleWhileRevalidate_invalid() {
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().staleWhileRevalidate(Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().staleWhileRevalidate(Duration.ofMillis(-1)));
+  }
+
+  @Test
+  public void staleWhileRevalidate_twice() {
+    var builder = Caffeine.newBuilder().staleWhileRevalidate(Duration.ofMillis(1));
+    assertThrows(IllegalStateException.class, () ->
+        builder.staleWhileRevalidate(Duration.ofMillis(1)));
+  }
+
+  @Test
+  public void staleWhileRevalidate_refreshAfterWrite() {
+    assertThrows(IllegalStateException.class, () -> Caffeine.newBuilder()
+        .refreshAfterWrite(Duration.ofMillis(1)).staleWhileRevalidate(Duration.ofMillis(1)));
+    assertThrows(IllegalStateException.class, () -> Caffeine.newBuilder()
+        .staleWhileRevalidate(Duration.ofMillis(1)).refreshAfterWrite(Duration.ofMillis(1)));
+  }
+
+  @Test
+  public void staleWhileRevalidate_noExpireAfterWrite() {
+    var builder = Caffeine.newBuilder().staleWhileRevalidate(Duration.ofMillis(1));
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+    assertThrows(IllegalStateException.class, () -> builder.buildAsync(loader));
+
+    builder.expireAfterWrite(Duration.ZERO);
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+  }
+
+  @Test
+  public void staleWhileRevalidate_noCacheLoader() {
+    var builder = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .staleWhileRevalidate(Duration.ofMillis(1));
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThrows(IllegalStateException.class, builder::buildAsync);
+  }
+
+  @Test
+  public void staleWhileRevalidate() {
+    var builder = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .staleWhileRevalidate(Duration.ofMinutes(5));
+    assertThat(builder.servesStale()).isTrue();
+    assertThat(builder.refreshAfterWrite()).isTrue();
+    assertThat(builder.getRefreshAfterWriteNanos()).isEqualTo(Duration.ofMinutes(1).toNanos());
+    assertThat(builder.getExpiresAfterWriteNanos()).isEqualTo(Duration.ofMinutes(6).toNanos());
+    assertThat(builder.toString()).contains("staleWhileRevalidate=300000000000ns");
+
+    var policy = builder.build(loader).policy();
+    assertThat(policy.refreshAfterWrite().orElseThrow().getRefreshesAfter())
+        .isEqualTo(Duration.ofMinutes(1));
+    assertThat(policy.expireAfterWrite().orElseThrow().getExpiresAfter())
+        .isEqualTo(Duration.ofMinutes(6));
+  }
+
+  @Test
+  public void staleWhileRevalidate_excessive() {
+    var builder = Caffeine.newBuilder()
+        .expireAfterWrite(ChronoUnit.FOREVER.getDuration())
+        .staleWhileRevalidate(ChronoUnit.FOREVER.getDuration());
+    assertThat(builder.getExpiresAfterWriteNanos()).isEqualTo(Long.MAX_VALUE);
+  }
+
+  /* --------------- earlyRefresh --------------- */
+
+  @Test
+  public void earlyRefresh_invalid() {
+    for (double beta : new double[] { 0.0, -1.0, Double.NaN, Double.POSITIVE_INFINITY }) {
+      assertThrows(IllegalArgumentException.class, () -> Caffeine.newBuilder().earlyRefresh(beta));
+    }
+  }
+
+  @Test
+  public void earlyRefresh_twice() {
+    var builder = Caffeine.newBuilder().earlyRefresh(1.0);
+    assertThrows(IllegalStateException.class, () -> builder.earlyRefresh(1.0));
+  }
+
+  @Test
+  public void earlyRefresh_noRefreshAfterWrite() {
+    var builder = Caffeine.newBuilder().earlyRefresh(1.0);
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+    assertThrows(IllegalStateException.class, () -> builder.buildAsync(loader));
+  }
+
+  @Test
+  public void earlyRefresh() {
+    var builder = Caffeine.newBuilder().refreshAfterWrite(Duration.ofMinutes(1)).earlyRefresh(2.0);
+    assertThat(builder.refreshesEarly()).isTrue();
+    assertThat(builder.getEarlyRefreshBeta()).isEqualTo(2.0);
+    assertThat(builder.toString()).contains("earlyRefresh=2.0");
+
+    var cache = (BoundedLocalCache<Object, Object>) builder.build(loader).asMap();
+    assertThat(cache.earlyRefreshBeta).isEqualTo(2.0);
+  }
+
+  /* --------------- coalesceLoads --------------- */
+
+  @Test
+  public void coalesceLoads_negativeBatchSize() {
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().coalesceLoads(0, Duration.ZERO));
+  }
+
+  @Test
+  public void coalesceLoads_negativeDelay() {
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().coalesceLoads(1, Duration.ofMillis(-1)));
+  }
+
+  @Test
+  public void coalesceLoads_twice() {
+    var builder = Caffeine.newBuilder().coalesceLoads(1, Duration.ZERO);
+    assertThrows(IllegalStateException.class, () ->
+        builder.coalesceLoads(1, Duration.ZERO));
+  }
+
+  @Test
+  public void coalesceLoads_noAsyncCacheLoader() {
+    var builder = Caffeine.newBuilder().coalesceLoads(1, Duration.ZERO);
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThrows(IllegalStateException.class, builder::buildAsync);
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+  }
+
+  @Test
+  public void coalesceLoads() {
+    var builder = Caffeine.newBuilder().coalesceLoads(10, Duration.ofMillis(1));
+    assertThat(builder.coalescesLoads()).isTrue();
+    assertThat(builder.coalesceMaximumBatchSize).isEqualTo(10);
+    assertThat(builder.coalesceMaximumDelayNanos).isEqualTo(Duration.ofMillis(1).toNanos());
+    assertThat(builder.toString()).contains("coalesceLoads=10 keys/1000000ns");
+    assertThat(builder.buildAsync(AsyncCacheLoader.bulk(keys -> Map.of()))).isNotNull();
+  }
+
+  /* --------------- coalesceRefreshes --------------- */
+
+  @Test
+  public void coalesceRefreshes_negativeBatchSize() {
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().coalesceRefreshes(0, Duration.ZERO));
+  }
+
+  @Test
+  public void coalesceRefreshes_negativeDelay() {
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().coalesceRefreshes(1, Duration.ofMillis(-1)));
+  }
+
+  @Test
+  public void coalesceRefreshes_twice() {
+    var builder = Caffeine.newBuilder().coalesceRefreshes(1, Duration.ZERO);
+    assertThrows(IllegalStateException.class, () ->
+        builder.coalesceRefreshes(1, Duration.ZERO));
+  }
+
+  @Test
+  public void coalesceRefreshes_noRefreshAfterWrite() {
+    var builder = Caffeine.newBuilder().coalesceRefreshes(1, Duration.ZERO);
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+    assertThrows(IllegalStateException.class, () -> builder.buildAsync(loader));
+  }
+
+  @Test
+  public void coalesceRefreshes_noBulkLoader() {
+    var builder = Caffeine.newBuilder()
+        .refreshAfterWrite(Duration.ofMinutes(1))
+        .coalesceRefreshes(1, Duration.ZERO);
+    assertThrows(IllegalStateException.class, () -> builder.build(key -> key));
+    assertThrows(IllegalStateException.class, () -> builder.buildAsync(key -> key));
+    assertThrows(IllegalStateException.class, () ->
+        builder.buildAsync((key, executor) -> CompletableFuture.completedFuture(key)));
+  }
+
+  @Test
+  public void coalesceRefreshes() {
+    var builder = Caffeine.newBuilder()
+        .refreshAfterWrite(Duration.ofMinutes(1))
+        .coalesceRefreshes(10, Duration.ofMillis(1));
+    assertThat(builder.coalescesRefreshes()).isTrue();
+    assertThat(builder.refreshCoalesceMaximumBatchSize).isEqualTo(10);
+    assertThat(builder.refreshCoalesceMaximumDelayNanos)
+        .isEqualTo(Duration.ofMillis(1).toNanos());
+    assertThat(builder.toString()).contains("coalesceRefreshes=10 keys/1000000ns");
+    assertThat(builder.build(CacheLoader.bulk(keys -> Map.of()))).isNotNull();
+    assertThat(builder.buildAsync(AsyncCacheLoader.bulk(keys -> Map.of()))).isNotNull();
+  }
+
+  /* --------------- negativeCaching --------------- */
+
+  @Test
+  public void negativeCaching_negativeSize() {
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().negativeCaching(-1, Duration.ofMinutes(1)));
+  }
+
+  @Test
+  public void negativeCaching_nonPositiveDuration() {
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().negativeCaching(1, Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().negativeCaching(1, Duration.ofMillis(-1)));
+  }
+
+  @Test
+  public void negativeCaching_twice() {
+    var builder = Caffeine.newBuilder().negativeCaching(1, Duration.ofMinutes(1));
+    assertThrows(IllegalStateException.class, () ->
+        builder.negativeCaching(1, Duration.ofMinutes(1)));
+  }
+
+  @Test
+  public void negativeCaching_async() {
+    var builder = Caffeine.newBuilder().negativeCaching(1, Duration.ofMinutes(1));
+    assertThrows(IllegalStateException.class, builder::buildAsync);
+    assertThrows(IllegalStateException.class, () -> builder.buildAsync(loader));
+  }
+
+  @Test
+  public void negativeCaching() {
+    var builder = Caffeine.newBuilder().negativeCaching(10, Duration.ofMinutes(1));
+    assertThat(builder.cachesNegatives()).isTrue();
+    assertThat(builder.negativeMaximumSize).isEqualTo(10);
+    assertThat(builder.negativeExpireAfterWriteNanos).isEqualTo(Duration.ofMinutes(1).toNanos());
+    assertThat(builder.toString()).contains("negativeCaching=10 keys/60000000000ns");
+
+    var cache = builder.build();
+    assertThat(cache.asMap()).isInstanceOf(BoundedLocalCache.class);
+    var negatives = cache.policy().negativeCache().orElseThrow();
+    assertThat(negatives.maximumSize()).isEqualTo(10);
+    assertThat(negatives.expiresAfter()).isEqualTo(Duration.ofMinutes(1));
+    assertThat(builder.build(loader).policy().negativeCache()).isPresent();
+  }
+
+  /* --------------- nearCache --------------- */
+
+  @Test
+  public void nearCache_invalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> Caffeine.newBuilder().nearCache(0));
+    assertThrows(IllegalArgumentException.class, () ->
+        Caffeine.newBuilder().nearCache(Caffeine.MAXIMUM_NEAR_CACHE_SIZE + 1));
+  }
+
+  @Test
+  public void nearCache_twice() {
+    var builder = Caffeine.newBuilder().nearCache(1);
+    assertThrows(IllegalStateException.class, () -> builder.nearCache(1));
+  }
+
+  @Test
+  public void nearCache_noMaximum() {
+    var builder = Caffeine.newBuilder().nearCache(1);
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+  }
+
+  @Test
+  public void nearCache_expiration() {
+    var builder = Caffeine.newBuilder().maximumSize(10).nearCache(1)
+        .expireAfterAccess(Duration.ofMinutes(1));
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThrows(IllegalStateException.class, builder::buildAsync);
+  }
+
+  @Test
+  public void nearCache_refresh() {
+    var builder = Caffeine.newBuilder().maximumSize(10).nearCache(1)
+        .refreshAfterWrite(Duration.ofMinutes(1));
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+  }
+
+  @Test
+  public void nearCache() {
+    var builder = Caffeine.newBuilder().maximumSize(10).nearCache(12);
+    assertThat(builder.hasNearCache()).isTrue();
+    assertThat(builder.toString()).contains("nearCache=12");
+
+    var cache = (BoundedLocalCache<Object, Object>) builder.build().asMap();
+    assertThat(requireNonNull(cache.nearCache).table().nodes).hasLength(16);
+  }
+
+  /* --------------- trackHeavyHitters --------------- */
+
+  @Test
+  public void trackHeavyHitters_invalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> Caffeine.newBuilder().trackHeavyHitters(0));
+  }
+
+  @Test
+  public void trackHeavyHitters_twice() {
+    var builder = Caffeine.newBuilder().trackHeavyHitters(1);
+    assertThrows(IllegalStateException.class, () -> builder.trackHeavyHitters(1));
+  }
+
+  @Test
+  public void trackHeavyHitters_noMaximum() {
+    var builder = Caffeine.newBuilder().trackHeavyHitters(1);
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+  }
+
+  @Test
+  public void trackHeavyHitters_weakKeys() {
+    var builder = Caffeine.newBuilder().maximumSize(10).weakKeys().trackHeavyHitters(1);
+    assertThrows(IllegalStateException.class, builder::build);
+  }
+
+  @Test
+  public void trackHeavyHitters() {
+    var builder = Caffeine.newBuilder().maximumSize(10).trackHeavyHitters(5);
+    assertThat(builder.tracksHeavyHitters()).isTrue();
+    assertThat(builder.toString()).contains("trackHeavyHitters=5");
+    assertThat(builder.build().policy().heavyHitters(5)).isEmpty();
+  }
+
+  @Test
+  public void trackHeavyHitters_disabled() {
+    var cache = Caffeine.newBuilder().maximumSize(10).build();
+    assertThrows(UnsupportedOperationException.class, () -> cache.policy().heavyHitters(5));
+  }
+
+  /* --------------- missCostAware --------------- */
+
+  @Test
+  public void missCostAware_twice() {
+    var builder = Caffeine.newBuilder().missCostAware();
+    assertThrows(IllegalStateException.class, builder::missCostAware);
+  }
+
+  @Test
+  public void missCostAware_noStats() {
+    var builder = Caffeine.newBuilder().maximumSize(10).missCostAware();
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThrows(IllegalStateException.class, builder::buildAsync);
+    assertThrows(IllegalStateException.class, () -> builder.build(loader));
+  }
+
+  @Test
+  public void missCostAware() {
+    var builder = Caffeine.newBuilder().maximumSize(10).missCostAware().recordStats();
+    assertThat(builder.isMissCostAware()).isTrue();
+    assertThat(builder.toString()).contains("missCostAware");
+
+    var cache = (BoundedLocalCache<Object, Object>) builder.build().asMap();
+    assertThat(cache.loadCosts).isNotNull();
+  }
+
+  @Test
+  public void missCostAware_unbounded() {
+    var cache = Caffeine.newBuilder().missCostAware().recordStats().build();
+    assertThat(cache.asMap()).isInstanceOf(UnboundedLocalCache.class);
+  }
+
   /* --------------- weakKeys --------------- */
 
   @Test
@@ -863,6 +1282,56 @@ public final class CaffeineTest {
     assertThat(builder.build()).isNotNull();
   }
 
+  @Test
+  public void removalListener_batch() {
+    var batches = new ArrayList<List<BatchRemovalListener.Notification<Integer, Integer>>>();
+    var removalListener = new BatchRemovalListener<Integer, Integer>() {
+      @Override public void onRemovals(
+          List<BatchRemovalListener.Notification<Integer, Integer>> notifications) {
+        batches.add(List.copyOf(notifications));
+      }
+      @Override public int maximumBatchSize() {
+        return 4;
+      }
+    };
+    var tasks = new ArrayList<Runnable>();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .removalListener(removalListener)
+        .executor(tasks::add)
+        .build();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, -i);
+    }
+    cache.invalidateAll();
+    assertThat(tasks).hasSize(1);
+
+    tasks.forEach(Runnable::run);
+    assertThat(batches.stream().map(List::size)).containsExactly(4, 4, 2).inOrder();
+    assertThat(batches.get(0).get(0))
+        .isEqualTo(new BatchRemovalListener.Notification<>(0, 0, RemovalCause.EXPLICIT));
+  }
+
+  @Test
+  public void removalListener_batch_async() {
+    var batches = new ArrayList<List<BatchRemovalListener.Notification<Integer, Integer>>>();
+    BatchRemovalListener<Integer, Integer> removalListener = notifications ->
+        batches.add(List.copyOf(notifications));
+    var tasks = new ArrayList<Runnable>();
+    AsyncCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .removalListener(removalListener)
+        .executor(tasks::add)
+        .buildAsync();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, CompletableFuture.completedFuture(-i));
+    }
+    cache.synchronous().invalidateAll();
+    assertThat(tasks).hasSize(1);
+
+    tasks.forEach(Runnable::run);
+    assertThat(batches).hasSize(1);
+    assertThat(batches.get(0)).hasSize(10);
+  }
+
   /* --------------- evictionListener --------------- */
 
   @Test
@@ -35,6 +35,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.slf4j.event.Level.WARN;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
@@ -60,6 +63,7 @@ import com.github.benmanes.caffeine.cache.testing.CacheSpec.InitialCapacity;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec.Listener;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec.Maximum;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec.Population;
+import com.github.benmanes.caffeine.cache.testing.CacheSpec.ReferenceType;
 import com.github.benmanes.caffeine.cache.testing.CacheValidationListener;
 import com.github.benmanes.caffeine.cache.testing.CheckMaxLogLevel;
 import com.github.benmanes.caffeine.cache.testing.CheckNoStats;
@@ -1240,4 +1244,135 @@ public final class EvictionTest {
     coldest.remove(context.lastKey());
     assertThat(coldest).containsExactlyElementsIn(keys).inOrder();
   }
+
+  /* --------------- Policy: Snapshot --------------- */
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine, maximumSize = Maximum.FULL)
+  public void writeSnapshot_negative(CacheContext context, Eviction<Int, Int> eviction) {
+    assertThrows(IllegalArgumentException.class, () -> eviction.writeSnapshot(Path.of(""), -1));
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine, maximumSize = Maximum.FULL)
+  public void writeSnapshot_null(CacheContext context, Eviction<Int, Int> eviction) {
+    assertThrows(NullPointerException.class, () -> eviction.writeSnapshot(null, 0));
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine, population = Population.FULL,
+      maximumSize = Maximum.FULL, keys = ReferenceType.STRONG, values = ReferenceType.STRONG)
+  public void writeSnapshot_partial(CacheContext context,
+      Eviction<Int, Int> eviction) throws IOException {
+    var path = Files.createTempFile("snapshot", ".bin");
+    try {
+      int limit = context.original().size() / 2;
+      assertThat(eviction.writeSnapshot(path, limit)).isEqualTo(limit);
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine, population = Population.FULL,
+      maximumSize = Maximum.FULL, keys = ReferenceType.STRONG, values = ReferenceType.STRONG)
+  public void readSnapshot(Cache<Int, Int> cache,
+      CacheContext context, Eviction<Int, Int> eviction) throws IOException {
+    var path = Files.createTempFile("snapshot", ".bin");
+    try {
+      var hottest = eviction.hottest(Integer.MAX_VALUE);
+      assertThat(eviction.writeSnapshot(path, Integer.MAX_VALUE)).isEqualTo(hottest.size());
+
+      cache.invalidateAll();
+      assertThat(eviction.readSnapshot(path)).isEqualTo(hottest.size());
+      assertThat(cache).containsExactlyEntriesIn(hottest);
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine, population = Population.FULL,
+      maximumSize = Maximum.FULL, keys = ReferenceType.STRONG, values = ReferenceType.STRONG)
+  public void readSnapshot_present(Cache<Int, Int> cache,
+      CacheContext context, Eviction<Int, Int> eviction) throws IOException {
+    var path = Files.createTempFile("snapshot", ".bin");
+    try {
+      eviction.writeSnapshot(path, Integer.MAX_VALUE);
+      assertThat(eviction.readSnapshot(path)).isEqualTo(0);
+      assertThat(cache).containsExactlyEntriesIn(context.original());
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine,
+      population = Population.FULL, maximumSize = Maximum.FULL,
+      expireAfterAccess = Expire.DISABLED, expireAfterWrite = Expire.ONE_MINUTE,
+      expiry = CacheExpiry.DISABLED, keys = ReferenceType.STRONG, values = ReferenceType.STRONG)
+  public void readSnapshot_expired(Cache<Int, Int> cache,
+      CacheContext context, Eviction<Int, Int> eviction) throws IOException {
+    var path = Files.createTempFile("snapshot", ".bin");
+    try {
+      context.ticker().advance(Duration.ofSeconds(30));
+      eviction.writeSnapshot(path, Integer.MAX_VALUE);
+      cache.invalidateAll();
+
+      context.ticker().advance(Duration.ofSeconds(45));
+      eviction.readSnapshot(path);
+      assertThat(cache).containsExactlyEntriesIn(context.original());
+
+      context.ticker().advance(Duration.ofSeconds(30));
+      cache.cleanUp();
+      assertThat(cache).isEmpty();
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine, maximumSize = Maximum.FULL)
+  public void readSnapshot_invalid(CacheContext context,
+      Eviction<Int, Int> eviction) throws IOException {
+    var path = Files.createTempFile("snapshot", ".bin");
+    try {
+      Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+      assertThrows(IOException.class, () -> eviction.readSnapshot(path));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void readSnapshot_largerMaximum() throws IOException {
+    Cache<Integer, Integer> source = Caffeine.newBuilder()
+        .executor(Runnable::run).maximumSize(100).build();
+    for (int i = 0; i < 100; i++) {
+      source.put(i, i);
+      for (int j = 0; j < (i % 8); j++) {
+        source.getIfPresent(i);
+      }
+    }
+    source.cleanUp();
+
+    Cache<Integer, Integer> target = Caffeine.newBuilder()
+        .executor(Runnable::run).maximumSize(10_000).build();
+    var path = Files.createTempFile("snapshot", ".bin");
+    try {
+      var eviction = source.policy().eviction().orElseThrow();
+      eviction.writeSnapshot(path, Integer.MAX_VALUE);
+      target.policy().eviction().orElseThrow().readSnapshot(path);
+    } finally {
+      Files.delete(path);
+    }
+
+    var sourceSketch = ((BoundedLocalCache<Integer, Integer>) source.asMap()).frequencySketch();
+    var targetSketch = ((BoundedLocalCache<Integer, Integer>) target.asMap()).frequencySketch();
+    target.cleanUp();
+    assertThat(targetSketch.table.length).isAtLeast(10_000);
+    for (int i = 0; i < 100; i++) {
+      assertThat(targetSketch.frequency(i)).isEqualTo(sourceSketch.frequency(i));
+    }
+  }
 }
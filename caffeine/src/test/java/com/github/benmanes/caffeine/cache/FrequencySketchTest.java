@@ -63,6 +63,27 @@ public final class FrequencySketchTest {
     assertThat(sketch.blockMask).isEqualTo(((2 * size) >> 3) - 1);
   }
 
+  @Test(dataProvider = "sketch")
+  public void racyFrequency(FrequencySketch<Integer> sketch) {
+    sketch.increment(item);
+    assertThat(sketch.racyFrequency(item)).isEqualTo(sketch.frequency(item));
+  }
+
+  @Test(dataProvider = "sketch")
+  public void racyFrequency_resizing(FrequencySketch<Integer> sketch) {
+    sketch.increment(item);
+
+    // A concurrent reader may observe the block mask of a larger table before the table itself
+    sketch.blockMask = ((4 * sketch.table.length) >>> 3) - 1;
+    assertThat(sketch.racyFrequency(item)).isEqualTo(1);
+  }
+
+  @Test
+  public void racyFrequency_notInitialized() {
+    var sketch = new FrequencySketch<Integer>();
+    assertThat(sketch.racyFrequency(item)).isEqualTo(0);
+  }
+
   @Test(dataProvider = "sketch", groups = "isolated")
   public void ensureCapacity_maximum(FrequencySketch<Integer> sketch) {
     int size = Integer.MAX_VALUE / 10 + 1;
@@ -101,6 +122,73 @@ public final class FrequencySketchTest {
     assertThat(sketch.frequency(0)).isEqualTo(1);
   }
 
+  @Test(dataProvider = "sketch")
+  public void restore(FrequencySketch<Integer> sketch) {
+    sketch.increment(item);
+    var restored = makeSketch(512);
+    restored.restore(sketch.table, sketch.sampleSize, sketch.size);
+
+    assertThat(restored.frequency(item)).isEqualTo(1);
+    assertThat(restored.size).isEqualTo(sketch.size);
+    assertThat(restored.blockMask).isEqualTo(sketch.blockMask);
+    assertThat(restored.sampleSize).isEqualTo(sketch.sampleSize);
+    assertThat(restored.table).isNotSameInstanceAs(sketch.table);
+  }
+
+  @Test(dataProvider = "sketch")
+  public void restore_larger(FrequencySketch<Integer> sketch) {
+    for (int i = 0; i < 100; i++) {
+      for (int j = 0; j < (i % 16); j++) {
+        sketch.increment(i);
+      }
+    }
+    var restored = makeSketch(4 * sketch.table.length);
+    restored.restore(sketch.table, sketch.sampleSize, sketch.size);
+
+    assertThat(restored.table.length).isEqualTo(4 * sketch.table.length);
+    assertThat(restored.sampleSize).isEqualTo(4 * sketch.sampleSize);
+    for (int i = 0; i < 100; i++) {
+      assertThat(restored.frequency(i)).isEqualTo(sketch.frequency(i));
+    }
+  }
+
+  @Test(dataProvider = "sketch")
+  public void restore_smaller(FrequencySketch<Integer> sketch) {
+    for (int i = 0; i < 100; i++) {
+      for (int j = 0; j < (i % 16); j++) {
+        sketch.increment(i);
+      }
+    }
+    var restored = makeSketch(sketch.table.length / 4);
+    restored.restore(sketch.table, sketch.sampleSize, sketch.size);
+
+    assertThat(restored.table.length).isEqualTo(sketch.table.length / 4);
+    assertThat(restored.size).isLessThan(restored.sampleSize);
+    for (int i = 0; i < 100; i++) {
+      assertThat(restored.frequency(i)).isAtLeast(sketch.frequency(i));
+    }
+  }
+
+  @Test
+  public void restore_notInitialized() {
+    var sketch = new FrequencySketch<Integer>();
+    assertThrows(IllegalStateException.class, () -> sketch.restore(new long[8], 10, 0));
+  }
+
+  @Test
+  public void maxCounters() {
+    assertThat(FrequencySketch.maxCounters(0x0F01L, 0x0310L)).isEqualTo(0x0F11L);
+    assertThat(FrequencySketch.maxCounters(-1L, 0L)).isEqualTo(-1L);
+  }
+
+  @Test
+  public void restore_invalid() {
+    var sketch = new FrequencySketch<Integer>();
+    assertThrows(IllegalArgumentException.class, () -> sketch.restore(new long[7], 10, 0));
+    assertThrows(IllegalArgumentException.class, () -> sketch.restore(new long[8], 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> sketch.restore(new long[8], 10, 10));
+  }
+
   @Test
   public void reset() {
     boolean reset = false;
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+/**
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+public final class HeavyHittersTest {
+
+  @Test
+  public void construct_invalid() {
+    assertThrows(IllegalArgumentException.class, () -> new HeavyHitters<Integer>(0));
+  }
+
+  @Test
+  public void snapshot_negative() {
+    var heavyHitters = new HeavyHitters<Integer>(4);
+    assertThrows(IllegalArgumentException.class, () -> heavyHitters.snapshot(-1));
+  }
+
+  @Test
+  public void record_exact() {
+    var heavyHitters = new HeavyHitters<Integer>(4);
+    for (int i = 1; i <= 3; i++) {
+      for (int j = 0; j < i; j++) {
+        heavyHitters.record(i, /* period */ 0);
+      }
+    }
+    assertThat(heavyHitters.snapshot(4))
+        .containsExactly(3, 3L, 2, 2L, 1, 1L).inOrder();
+    assertThat(heavyHitters.snapshot(1)).containsExactly(3, 3L);
+  }
+
+  @Test
+  public void record_replacesMinimum() {
+    var heavyHitters = new HeavyHitters<Integer>(2);
+    heavyHitters.record(1, /* period */ 0);
+    heavyHitters.record(1, /* period */ 0);
+    heavyHitters.record(2, /* period */ 0);
+    heavyHitters.record(3, /* period */ 0);
+
+    assertThat(heavyHitters.snapshot(2)).containsExactly(1, 2L, 3, 2L);
+    assertThat(heavyHitters.counters.get(3).error).isEqualTo(1);
+  }
+
+  @Test
+  public void record_skewed() {
+    var random = new Random(1);
+    var heavyHitters = new HeavyHitters<Integer>(16);
+    for (int i = 0; i < 100_000; i++) {
+      int key = (random.nextInt(2) == 0) ? random.nextInt(4) : (4 + random.nextInt(100_000));
+      heavyHitters.record(key, /* period */ 0);
+    }
+    assertThat(heavyHitters.snapshot(4).keySet()).containsExactly(0, 1, 2, 3);
+  }
+
+  @Test
+  public void age() {
+    var heavyHitters = new HeavyHitters<Integer>(4);
+    for (int i = 0; i < 9; i++) {
+      heavyHitters.record(1, /* period */ 10);
+    }
+    heavyHitters.record(2, /* period */ 10);
+    assertThat(heavyHitters.snapshot(4)).containsExactly(1, 4L, 2, 1L).inOrder();
+  }
+
+  @Test
+  public void policy() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .trackHeavyHitters(4)
+        .maximumSize(100)
+        .build();
+    for (int i = 0; i < 10; i++) {
+      cache.get(i, key -> key);
+    }
+    for (int i = 0; i < 50; i++) {
+      cache.getIfPresent(7);
+    }
+
+    Map<Integer, Long> heavyHitters = cache.policy().heavyHitters(1);
+    assertThat(heavyHitters).containsKey(7);
+    assertThat(heavyHitters.get(7)).isAtLeast(25L);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.LoadCostSketch.MAXIMUM_COST;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertThrows;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.testng.annotations.Test;
+
+/**
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+@SuppressWarnings("ClassEscapesDefinedScope")
+public final class LoadCostSketchTest {
+  final Integer item = ThreadLocalRandom.current().nextInt();
+
+  @Test
+  public void construct() {
+    var sketch = new LoadCostSketch<Integer>();
+    assertThat(sketch.table).hasLength(8);
+    assertThat(sketch.cost(item)).isEqualTo(0);
+  }
+
+  @Test
+  public void ensureCapacity_negative() {
+    var sketch = new LoadCostSketch<Integer>();
+    assertThrows(IllegalArgumentException.class, () -> sketch.ensureCapacity(-1));
+  }
+
+  @Test
+  public void ensureCapacity_smaller() {
+    var sketch = new LoadCostSketch<Integer>();
+    sketch.ensureCapacity(512);
+    sketch.ensureCapacity(256);
+    assertThat(sketch.table).hasLength(512);
+  }
+
+  @Test
+  public void ensureCapacity_larger() {
+    var sketch = new LoadCostSketch<Integer>();
+    sketch.ensureCapacity(500);
+    assertThat(sketch.table).hasLength(512);
+  }
+
+  @Test
+  public void costOf() {
+    assertThat(LoadCostSketch.costOf(-1)).isEqualTo(0);
+    assertThat(LoadCostSketch.costOf(0)).isEqualTo(0);
+    assertThat(LoadCostSketch.costOf(MICROSECONDS.toNanos(10))).isEqualTo(0);
+    assertThat(LoadCostSketch.costOf(MILLISECONDS.toNanos(1))).isEqualTo(4);
+    assertThat(LoadCostSketch.costOf(SECONDS.toNanos(2))).isEqualTo(MAXIMUM_COST);
+    assertThat(LoadCostSketch.costOf(Long.MAX_VALUE)).isEqualTo(MAXIMUM_COST);
+  }
+
+  @Test
+  public void record() {
+    var sketch = new LoadCostSketch<Integer>();
+    sketch.ensureCapacity(512);
+
+    sketch.record(item, MILLISECONDS.toNanos(1));
+    assertThat(sketch.cost(item)).isEqualTo(4);
+
+    sketch.record(item, SECONDS.toNanos(2));
+    assertThat(sketch.cost(item)).isEqualTo(10);
+
+    for (int i = 0; i < 10; i++) {
+      sketch.record(item, SECONDS.toNanos(2));
+    }
+    assertThat(sketch.cost(item)).isEqualTo(MAXIMUM_COST);
+  }
+}
@@ -400,7 +400,7 @@ public final class LocalCacheSubject extends Subject {
       canCheckWeight = (asyncWeigher.delegate == Weighers.random());
     }
     if (canCheckWeight) {
-      check("node.getWeight()").that(node.getWeight()).isEqualTo(weigher.weigh(key, value));
+      check("node.getWeight()").that(node.getWeight()).isEqualTo(weigher.weighLong(key, value));
     }
   }
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Objects.requireNonNull;
+
+import org.testng.annotations.Test;
+
+/**
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+public final class NearCacheTest {
+
+  @Test
+  public void getIfPresent_promoted() {
+    var cache = newCache();
+    cache.put(1, 1);
+    promote(cache, 1);
+
+    var node = requireNonNull(cache.data.get(1));
+    assertThat(table(cache).nodes).asList().contains(node);
+    assertThat(cache.getIfPresent(1, /* recordStats */ true)).isEqualTo(1);
+  }
+
+  @Test
+  public void getIfPresent_cold() {
+    var cache = newCache();
+    cache.put(1, 1);
+    for (int i = 0; i < NearCache.SAMPLE_MASK; i++) {
+      assertThat(cache.getIfPresent(1, /* recordStats */ true)).isEqualTo(1);
+    }
+    assertThat(table(cache).nodes).asList().containsExactly(null, null, null, null);
+  }
+
+  @Test
+  public void put_coherent() {
+    var cache = newCache();
+    cache.put(1, 1);
+    promote(cache, 1);
+
+    cache.put(1, 2);
+    assertThat(cache.getIfPresent(1, /* recordStats */ true)).isEqualTo(2);
+    assertThat(cache.computeIfAbsent(1, key -> 3)).isEqualTo(2);
+  }
+
+  @Test
+  public void invalidate_coherent() {
+    var cache = newCache();
+    cache.put(1, 1);
+    promote(cache, 1);
+
+    cache.remove(1);
+    assertThat(cache.getIfPresent(1, /* recordStats */ true)).isNull();
+    assertThat(cache.computeIfAbsent(1, key -> 3)).isEqualTo(3);
+  }
+
+  @Test
+  public void clear_releasesTables() {
+    var cache = newCache();
+    cache.put(1, 1);
+    promote(cache, 1);
+
+    var near = requireNonNull(cache.nearCache);
+    var table = table(cache);
+    assertThat(near.owners).containsEntry(Thread.currentThread(), table);
+
+    cache.clear();
+    assertThat(near.owners).isEmpty();
+    assertThat(table.nodes).asList().containsExactly(null, null, null, null);
+    assertThat(cache.getIfPresent(1, /* recordStats */ true)).isNull();
+  }
+
+  @Test
+  public void stats_credited() {
+    var cache = newCache();
+    cache.put(1, 1);
+    promote(cache, 1);
+
+    long hits = cache.statsCounter().snapshot().hitCount();
+    for (int i = 0; i < NearCache.CREDIT_BATCH_SIZE; i++) {
+      assertThat(cache.getIfPresent(1, /* recordStats */ true)).isEqualTo(1);
+    }
+    assertThat(cache.statsCounter().snapshot().hitCount())
+        .isAtLeast(hits + NearCache.CREDIT_BATCH_SIZE / 2);
+  }
+
+  private static void promote(BoundedLocalCache<Integer, Integer> cache, Integer key) {
+    for (int i = 0; i < 1_000; i++) {
+      assertThat(cache.getIfPresent(key, /* recordStats */ true)).isNotNull();
+      if ((i % NearCache.CREDIT_BATCH_SIZE) == 0) {
+        cache.cleanUp();
+      }
+    }
+  }
+
+  private static NearCache.Table<Integer, Integer> table(
+      BoundedLocalCache<Integer, Integer> cache) {
+    return requireNonNull(cache.nearCache).table();
+  }
+
+  private static BoundedLocalCache<Integer, Integer> newCache() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .maximumSize(1_000)
+        .recordStats()
+        .nearCache(4)
+        .build();
+    return (BoundedLocalCache<Integer, Integer>) cache.asMap();
+  }
+}
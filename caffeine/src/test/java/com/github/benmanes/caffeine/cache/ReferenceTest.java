@@ -51,6 +51,7 @@ import org.testng.annotations.Test;
 
 import com.github.benmanes.caffeine.cache.References.InternalReference;
 import com.github.benmanes.caffeine.cache.References.LookupKeyEqualsReference;
+import com.github.benmanes.caffeine.cache.References.LookupKeyProbe;
 import com.github.benmanes.caffeine.cache.References.LookupKeyReference;
 import com.github.benmanes.caffeine.cache.References.SoftValueReference;
 import com.github.benmanes.caffeine.cache.References.WeakKeyEqualsReference;
@@ -100,6 +101,16 @@ public final class ReferenceTest {
     assertThat(cache).doesNotContainKey(key);
   }
 
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine,
+      keys = ReferenceType.WEAK, population = Population.FULL)
+  public void identity_keys_probe(Cache<Int, Int> cache, CacheContext context) {
+    Int key = context.firstKey();
+    assertThat(cache.getIfPresent(key)).isEqualTo(context.original().get(key));
+    assertThat(cache.getIfPresent(new Int(key))).isNull();
+    assertThat(LookupKeyProbe.PROBES.get().get()).isNull();
+  }
+
   @Test(dataProvider = "caches")
   @CacheSpec(values = {ReferenceType.WEAK, ReferenceType.SOFT}, population = Population.FULL)
   public void identity_values(Cache<Int, Int> cache, CacheContext context) {
@@ -1288,6 +1299,24 @@ public final class ReferenceTest {
         .testEquals();
   }
 
+  @Test
+  public void lookupKeyProbe() {
+    var key = new Int(1);
+    var probe = new LookupKeyProbe();
+    probe.set(key);
+
+    var reference = new WeakKeyReference<>(key, null);
+    assertThat(probe.get()).isSameInstanceAs(key);
+    assertThat(probe.getKeyReference()).isSameInstanceAs(probe);
+    assertThat(probe.hashCode()).isEqualTo(reference.hashCode());
+    assertThat(probe.equals(reference)).isTrue();
+    assertThat(probe.equals(new WeakKeyReference<>(new Int(1), null))).isFalse();
+    assertThat(probe.toString()).contains("key=" + key);
+
+    probe.clear();
+    assertThat(probe.get()).isNull();
+  }
+
   @DataProvider(name = "references")
   public Object[][] providesReferences() {
     var item = new Int(1);
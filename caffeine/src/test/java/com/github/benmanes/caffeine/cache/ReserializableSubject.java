@@ -17,6 +17,7 @@ package com.github.benmanes.caffeine.cache;
 
 import static com.github.benmanes.caffeine.cache.testing.AsyncCacheSubject.asyncCache;
 import static com.github.benmanes.caffeine.cache.testing.CacheSubject.cache;
+import static java.util.Objects.requireNonNull;
 
 import com.github.benmanes.caffeine.cache.Async.AsyncEvictionListener;
 import com.github.benmanes.caffeine.cache.Async.AsyncExpiry;
@@ -145,6 +146,16 @@ public final class ReserializableSubject extends Subject {
     if (original.refreshAfterWrite()) {
       check("refreshAfterWriteNanos()").that(copy.refreshAfterWriteNanos())
           .isEqualTo(original.refreshAfterWriteNanos());
+      check("earlyRefreshBeta").that(copy.earlyRefreshBeta).isEqualTo(original.earlyRefreshBeta);
+    }
+    check("coalesceRefreshes").that(copy.refreshCoalescer != null)
+        .isEqualTo(original.refreshCoalescer != null);
+    if (original.refreshCoalescer != null) {
+      var coalescer = requireNonNull(copy.refreshCoalescer);
+      check("refreshCoalescer.maximumBatchSize").that(coalescer.maximumBatchSize)
+          .isEqualTo(original.refreshCoalescer.maximumBatchSize);
+      check("refreshCoalescer.maximumDelayNanos").that(coalescer.maximumDelayNanos)
+          .isEqualTo(original.refreshCoalescer.maximumDelayNanos);
     }
   }
 
@@ -156,6 +167,7 @@ public final class ReserializableSubject extends Subject {
     if (original.evicts()) {
       check("maximum()").that(copy.maximum()).isEqualTo(original.maximum());
     }
+    check("missCostAware").that(copy.loadCosts != null).isEqualTo(original.loadCosts != null);
   }
 
   private void checkExpiresAfterAccess(
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.RetainedMemoryWeigher.ARRAY_HEADER_SIZE;
+import static com.github.benmanes.caffeine.cache.RetainedMemoryWeigher.MINIMUM_OBJECT_SIZE;
+import static com.github.benmanes.caffeine.cache.RetainedMemoryWeigher.align;
+import static com.github.benmanes.caffeine.cache.RetainedMemoryWeigher.sizeOf;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.testng.annotations.Test;
+
+/**
+ * @author ben.manes@gmail.com (Ben Manes)
+ */
+public final class RetainedMemoryWeigherTest {
+
+  @Test
+  public void sizeOf_primitiveArray() {
+    assertThat(sizeOf(new byte[100])).isEqualTo(align(ARRAY_HEADER_SIZE + 100));
+    assertThat(sizeOf(new long[100])).isEqualTo(align(ARRAY_HEADER_SIZE + 800));
+  }
+
+  @Test
+  public void sizeOf_string() {
+    assertThat(sizeOf("a".repeat(100))).isLessThan(sizeOf("\u4e2d".repeat(100)));
+    assertThat(sizeOf("a".repeat(1000))).isGreaterThan(1000);
+  }
+
+  @Test
+  public void sizeOf_objectGraph() {
+    var small = new Holder(new byte[10]);
+    var large = new Holder(new byte[10_000]);
+    assertThat(sizeOf(large) - sizeOf(small)).isAtLeast(10_000 - 10);
+  }
+
+  @Test
+  public void sizeOf_cycle() {
+    var holder = new Holder(new byte[0]);
+    holder.next = holder;
+    long shallowSize = RetainedMemoryWeigher.LAYOUTS.get(Holder.class).shallowSize;
+    assertThat(sizeOf(holder)).isEqualTo(shallowSize + align(ARRAY_HEADER_SIZE));
+  }
+
+  @Test
+  public void sizeOf_shared() {
+    byte[] shared = new byte[1_000];
+    assertThat(sizeOf(shared, shared)).isEqualTo(sizeOf(shared));
+  }
+
+  @Test
+  public void sizeOf_string_sampled() {
+    String latin1 = "a".repeat(1_000);
+    String utf16 = "\u4e2d" + "a".repeat(999);
+    assertThat(sizeOf(latin1)).isEqualTo(sizeOf("b".repeat(1_000)));
+    assertThat(sizeOf(utf16)).isGreaterThan(sizeOf(latin1));
+  }
+
+  @Test
+  public void sizeOf_collection() {
+    List<byte[]> list = new ArrayList<>();
+    var map = new HashMap<Integer, byte[]>();
+    for (int i = 0; i < 10; i++) {
+      list.add(new byte[1_000]);
+      map.put(i, new byte[1_000]);
+    }
+
+    // The list's elements are extrapolated from its first and the map's are assumed to be minimal
+    assertThat(sizeOf(list)).isAtLeast(10 * 1_000);
+    assertThat(sizeOf(map)).isAtLeast(sizeOf(new HashMap<>()) + (20 * MINIMUM_OBJECT_SIZE));
+    assertThat(sizeOf(map)).isLessThan(10 * 1_000);
+  }
+
+  @Test
+  public void sizeOf_nestedCollection() {
+    var root = new Tree();
+    for (int i = 0; i < 1_000; i++) {
+      root.children.add(new Tree());
+    }
+    long shallowSize = RetainedMemoryWeigher.LAYOUTS.get(Tree.class).shallowSize;
+    assertThat(sizeOf(root)).isAtLeast(1_000 * shallowSize);
+  }
+
+  @Test
+  public void sizeOf_collection_notIterated() {
+    var collection = new AbstractCollection<Integer>() {
+      @Override public Iterator<Integer> iterator() {
+        throw new AssertionError();
+      }
+      @Override public int size() {
+        return 10;
+      }
+    };
+    assertThat(sizeOf(collection)).isAtLeast(10 * MINIMUM_OBJECT_SIZE);
+  }
+
+  @Test
+  public void sizeOf_bounded() {
+    var head = new Holder(new byte[0]);
+    for (int i = 0; i < 1_000; i++) {
+      var holder = new Holder(head.bytes);
+      holder.next = head;
+      head = holder;
+    }
+    long shallowSize = RetainedMemoryWeigher.LAYOUTS.get(Holder.class).shallowSize;
+    assertThat(sizeOf(head)).isAtMost((RetainedMemoryWeigher.MAXIMUM_OBJECTS + 1) * shallowSize);
+  }
+
+  @Test
+  public void weighLong_failure() {
+    var value = new AbstractList<Integer>() {
+      @Override public Integer get(int index) {
+        throw new IllegalStateException();
+      }
+      @Override public int size() {
+        throw new IllegalStateException();
+      }
+    };
+    var weigher = new RetainedMemoryWeigher(100);
+    long shallowSize = RetainedMemoryWeigher.LAYOUTS.get(value.getClass()).shallowSize;
+    assertThat(weigher.weighLong(1, value)).isEqualTo(100 + sizeOf(1) + shallowSize);
+  }
+
+  @Test
+  public void sizeOf_sharedByDefinition() {
+    assertThat(sizeOf(String.class, TimeUnit.SECONDS)).isEqualTo(0);
+  }
+
+  @Test
+  public void weighLong_entryOverhead() {
+    var builder = Caffeine.newBuilder().maximumRetainedMemory(1_000);
+    var nodeFactory = NodeFactory.newFactory(builder, /* isAsync */ false);
+    var weigher = new RetainedMemoryWeigher(0).withEntryOverhead(nodeFactory, /* isAsync */ false);
+    var asyncWeigher = new RetainedMemoryWeigher(0).withEntryOverhead(
+        NodeFactory.newFactory(builder, /* isAsync */ true), /* isAsync */ true);
+
+    byte[] value = new byte[100];
+    assertThat(weigher.entryOverhead).isGreaterThan(0);
+    assertThat(asyncWeigher.entryOverhead).isGreaterThan(weigher.entryOverhead);
+    assertThat(weigher.weighLong(1, value)).isEqualTo(weigher.entryOverhead + sizeOf(1, value));
+  }
+
+  static final class Tree {
+    final List<Tree> children = new ArrayList<>();
+  }
+
+  static final class Holder {
+    final byte[] bytes;
+    @Nullable Holder next;
+
+    Holder(byte[] bytes) {
+      this.bytes = bytes;
+    }
+  }
+}
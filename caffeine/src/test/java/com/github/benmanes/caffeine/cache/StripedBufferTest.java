@@ -97,6 +97,34 @@ public final class StripedBufferTest {
     assertThat(buffer.drains).isEqualTo(1);
   }
 
+  @Test
+  public void sweep_idle() {
+    var buffer = new BoundedBuffer<Integer>();
+    assertThat(buffer.offer(ELEMENT)).isEqualTo(Buffer.SUCCESS);
+    for (int i = 0; i < (2 * StripedBuffer.SWEEP_INTERVAL); i++) {
+      buffer.drainTo(e -> {});
+    }
+    assertThat(buffer.table).asList().containsExactly((Object) null);
+    assertThat(buffer.writes()).isEqualTo(1);
+    assertThat(buffer.reads()).isEqualTo(1);
+
+    assertThat(buffer.offer(ELEMENT)).isEqualTo(Buffer.SUCCESS);
+    assertThat(buffer.table[0]).isNotNull();
+    assertThat(buffer.writes()).isEqualTo(2);
+  }
+
+  @Test
+  public void sweep_active() {
+    var buffer = new BoundedBuffer<Integer>();
+    for (int i = 0; i < (2 * StripedBuffer.SWEEP_INTERVAL); i++) {
+      assertThat(buffer.offer(ELEMENT)).isEqualTo(Buffer.SUCCESS);
+      buffer.drainTo(e -> {});
+    }
+    assertThat(buffer.table[0]).isNotNull();
+    assertThat(buffer.writes()).isEqualTo(2 * StripedBuffer.SWEEP_INTERVAL);
+    assertThat(buffer.reads()).isEqualTo(2 * StripedBuffer.SWEEP_INTERVAL);
+  }
+
   @DataProvider(name = "buffers")
   public Object[] providesBuffers() {
     var results = List.of(Buffer.SUCCESS, Buffer.FAILED, Buffer.FULL);
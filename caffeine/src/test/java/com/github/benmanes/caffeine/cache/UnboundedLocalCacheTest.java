@@ -53,4 +53,18 @@ public final class UnboundedLocalCacheTest {
     assertThat(cache.policy().expireAfterAccess()).isEmpty();
     assertThat(cache.policy().refreshAfterWrite()).isEmpty();
   }
+
+  @CacheSpec(population = Population.FULL, refreshAfterWrite = Expire.DISABLED,
+      expireAfterAccess = Expire.DISABLED, expireAfterWrite = Expire.DISABLED,
+      maximumSize = Maximum.DISABLED, weigher = CacheWeigher.DISABLED,
+      keys = ReferenceType.STRONG, values = ReferenceType.STRONG)
+  @Test(dataProvider = "caches")
+  public void metrics(Cache<Integer, Integer> cache, CacheContext context) {
+    var metrics = cache.policy().metrics();
+    assertThat(metrics.readBufferOffers()).isEqualTo(0);
+    assertThat(metrics.maintenanceCount()).isEqualTo(0);
+    assertThat(metrics.windowWeightedSize()).isEqualTo(0);
+    assertThat(metrics.timerWheelOccupancy()).isEqualTo(0);
+    assertThat(metrics.pendingRefreshes()).isEqualTo(0);
+  }
 }